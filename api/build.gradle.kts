@@ -8,8 +8,10 @@ plugins {
 dependencies {
     api(libs.jetbrains.annotations)
     compileOnly(libs.paper)
-    compileOnly(libs.lombok)
-    annotationProcessor(libs.lombok)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
 }
 
 tasks {
@@ -42,4 +44,8 @@ tasks {
     assemble {
         dependsOn(shadowJar)
     }
+
+    test {
+        useJUnitPlatform()
+    }
 }
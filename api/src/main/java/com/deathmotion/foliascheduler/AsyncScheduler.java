@@ -30,23 +30,436 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 
 /**
  * Represents a scheduler for executing tasks asynchronously.
+ * <p>
+ * Tasks accepting a {@link Runnable} are handed to Bukkit as-is, while tasks accepting a {@link Consumer} are handed to Folia as-is.
+ * On Folia the consumer receives the platform's scheduled task, on Bukkit it receives {@code null}.
+ * <p>
+ * On Bukkit, delays and periods given in a {@link TimeUnit} are kept by a timer of our own rather than rounded down to whole ticks.
+ * <p>
+ * Blocking file, database and socket work can be submitted to the I/O lane through {@code executeIo}, {@code runIo} and {@code runIoDelayed}.
+ * The lane is a bounded pool of our own, so bursts of blocking work never starve the CPU-bound tasks on the platform's pool.
+ * <p>
+ * Tasks submitted with a {@link TaskPriority} still run on the platform's pool, but wait in priority lanes
+ * for one of a bounded set of workers, so critical tasks are not queued behind bulk work.
+ * Delayed prioritized tasks are kept by the same shared timer thread as every other executor of ours.
+ * <p>
+ * CPU-heavy computations can be split over a {@link ForkJoinPool} of our own through {@code fork} and {@code splitAsync},
+ * and their result delivered back on a region or the global region through the returned {@link SchedulerFuture}.
  */
 public final class AsyncScheduler {
 
     private BukkitScheduler bukkitScheduler;
     private io.papermc.paper.threadedregions.scheduler.AsyncScheduler asyncScheduler;
 
+    private ExecutorScheduler timerScheduler;
+    private ExecutorService virtualThreadExecutor;
+    private ExecutorScheduler virtualThreadScheduler;
+    private int forkJoinParallelism = Runtime.getRuntime().availableProcessors();
+    private volatile ForkJoinPool forkJoinPool;
+    private ExecutorScheduler forkJoinScheduler;
+    // The scheduler of the enabled executor mode, or null while tasks go to the platform's pool
+    private volatile ExecutorScheduler executorScheduler;
+
+    private int ioThreads = 4;
+    private int ioQueueCapacity = 1024;
+    private ThreadPoolExecutor ioExecutor;
+    private volatile ExecutorScheduler ioScheduler;
+
+    private int priorityParallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private long priorityAgingNanos = TimeUnit.MILLISECONDS.toNanos(500);
+    private PriorityLanes priorityLanes;
+    private volatile ExecutorScheduler[] prioritySchedulers;
+
     AsyncScheduler() {
         if (FoliaScheduler.isFolia()) {
             asyncScheduler = Bukkit.getAsyncScheduler();
         } else {
             bukkitScheduler = Bukkit.getScheduler();
+            // Bukkit only delays in whole ticks, so time based delays are kept by our own timer instead
+            timerScheduler = new ExecutorScheduler(bukkitScheduler::runTaskAsynchronously);
+        }
+    }
+
+    /**
+     * Executes tasks scheduled through {@code runNow}, {@code runDelayed}, {@code runAtFixedRate} and {@code execute}
+     * on virtual threads, instead of the platform's asynchronous thread pool.
+     * Delays are kept by the shared timer thread, which hands each run to a new virtual thread.
+     * This suits tasks which mostly block, such as database or HTTP calls.
+     * <p>
+     * Virtual threads require Java 21 or newer. On older JVMs this method does nothing and returns false.
+     *
+     * @return true if virtual threads are now used, false if the JVM does not support them
+     */
+    public synchronized boolean enableVirtualThreads() {
+        if (virtualThreadScheduler == null) {
+            ExecutorService executor = ExecutorScheduler.newVirtualThreadExecutor();
+            if (executor == null) return false;
+
+            virtualThreadExecutor = executor;
+            virtualThreadScheduler = new ExecutorScheduler(executor);
+        }
+
+        executorScheduler = virtualThreadScheduler;
+        return true;
+    }
+
+    /**
+     * Schedules new tasks on the platform's asynchronous thread pool again.
+     * Tasks already scheduled on virtual threads keep running there.
+     */
+    public synchronized void disableVirtualThreads() {
+        if (executorScheduler == virtualThreadScheduler) executorScheduler = null;
+    }
+
+    /**
+     * @return Whether new tasks are executed on virtual threads
+     */
+    public boolean isVirtualThreadsEnabled() {
+        ExecutorScheduler scheduler = executorScheduler;
+        return scheduler != null && scheduler == virtualThreadScheduler;
+    }
+
+    /**
+     * Sizes the fork/join pool used by {@code fork}, {@code splitAsync} and {@link #enableForkJoinPool()}.
+     * Defaults to one thread per processor.
+     *
+     * @param parallelism The amount of threads of the pool
+     * @throws IllegalStateException If the pool has already been used
+     */
+    public synchronized void configureForkJoinPool(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("The fork/join pool needs at least one thread");
+        if (forkJoinPool != null) throw new IllegalStateException("The fork/join pool has already been used");
+
+        forkJoinParallelism = parallelism;
+    }
+
+    /**
+     * Executes tasks scheduled through {@code runNow}, {@code runDelayed}, {@code runAtFixedRate} and {@code execute}
+     * on our fork/join pool, instead of the platform's asynchronous thread pool.
+     * This suits CPU-heavy tasks which fork subtasks of their own, such as {@link java.util.concurrent.RecursiveTask}s.
+     * Enabling the pool disables virtual threads and the other way around.
+     */
+    public synchronized void enableForkJoinPool() {
+        if (forkJoinScheduler == null) {
+            forkJoinScheduler = new ExecutorScheduler(forkJoinPool());
+        }
+
+        executorScheduler = forkJoinScheduler;
+    }
+
+    /**
+     * Schedules new tasks on the platform's asynchronous thread pool again.
+     * Tasks already scheduled on the fork/join pool keep running there.
+     */
+    public synchronized void disableForkJoinPool() {
+        if (executorScheduler == forkJoinScheduler) executorScheduler = null;
+    }
+
+    /**
+     * @return Whether new tasks are executed on our fork/join pool
+     */
+    public boolean isForkJoinPoolEnabled() {
+        ExecutorScheduler scheduler = executorScheduler;
+        return scheduler != null && scheduler == forkJoinScheduler;
+    }
+
+    /**
+     * Runs the task on our fork/join pool, where the subtasks it forks are spread over all threads of the pool.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   The task to run.
+     * @param <T>    The type of the computed value
+     * @return A future completing with the result of the task, which can be delivered with {@link SchedulerFuture#thenOnRegion} or {@link SchedulerFuture#thenOnGlobal}
+     */
+    public <T> SchedulerFuture<T> fork(@NotNull Plugin plugin, @NotNull ForkJoinTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable run = SubmissionLimiter.failOnDrop(SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, () -> {
+            try {
+                future.complete(task.invoke());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }), future);
+        Runnable submission = () -> forkJoinPool().execute(run);
+
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.ASYNC, run, submission);
+        } else {
+            submission.run();
+        }
+
+        return SchedulerFuture.of(plugin, future);
+    }
+
+    /**
+     * Computes a value over the index range {@code [from, to)} in parallel on our fork/join pool.
+     * The range is halved until a part holds at most {@code threshold} indices,
+     * every part is computed by {@code compute} and the results of both halves are combined by {@code merge}.
+     *
+     * @param plugin    Plugin which owns the specified task.
+     * @param from      The first index, inclusive
+     * @param to        The last index, exclusive
+     * @param threshold The largest amount of indices computed by a single subtask
+     * @param compute   Computes the value of a part of the range
+     * @param merge     Combines the values of two adjacent parts, the lower one first
+     * @param <T>       The type of the computed value
+     * @return A future completing with the combined value, which can be delivered with {@link SchedulerFuture#thenOnRegion} or {@link SchedulerFuture#thenOnGlobal}
+     */
+    public <T> SchedulerFuture<T> splitAsync(@NotNull Plugin plugin, int from, int to, int threshold, @NotNull RangeFunction<T> compute, @NotNull BinaryOperator<T> merge) {
+        if (from > to) throw new IllegalArgumentException("The range ends before it starts");
+        return fork(plugin, new SplitTask<>(from, to, Math.max(1, threshold), compute, merge));
+    }
+
+    private ForkJoinPool forkJoinPool() {
+        ForkJoinPool pool = forkJoinPool;
+        if (pool != null) return pool;
+
+        synchronized (this) {
+            if (forkJoinPool == null) {
+                AtomicInteger threadCount = new AtomicInteger();
+                forkJoinPool = new ForkJoinPool(forkJoinParallelism, owner -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+                    thread.setName("FoliaScheduler ForkJoin Worker #" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, false);
+            }
+
+            return forkJoinPool;
+        }
+    }
+
+    /**
+     * Sizes the I/O lane. Defaults to 4 threads and 1024 queued tasks.
+     *
+     * @param threads       The amount of threads running I/O tasks
+     * @param queueCapacity The amount of I/O tasks which may wait for a thread before new ones are rejected
+     * @throws IllegalStateException If the I/O lane has already been used
+     */
+    public synchronized void configureIoLane(int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) throw new IllegalArgumentException("The I/O lane needs at least one thread and one queue slot");
+        if (ioScheduler != null) throw new IllegalStateException("The I/O lane has already been used");
+
+        ioThreads = threads;
+        ioQueueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return The amount of I/O tasks waiting for a thread
+     */
+    public int getIoBacklog() {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = ioExecutor;
+        }
+
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    /**
+     * Schedules the specified blocking task to be executed on the I/O lane immediately.
+     * The task is still tracked by the lane so {@link #cancel(Plugin)} reaches it, only its handle is not returned.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param run    Specified task.
+     * @throws RejectedExecutionException If the I/O lane's queue is full
+     */
+    public void executeIo(@NotNull Plugin plugin, @NotNull Runnable run) {
+        runIo(plugin, run);
+    }
+
+    /**
+     * Schedules the specified blocking task to be executed on the I/O lane immediately.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     * @throws RejectedExecutionException If the I/O lane's queue is full
+     */
+    public TaskWrapper runIo(@NotNull Plugin plugin, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC_IO)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC_IO, task, () -> runIo(plugin, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC_IO, task);
+
+        TaskWrapper wrapper = ioLane().runNow(plugin, instrumented);
+        if (wrapper.isCancelled()) throw new RejectedExecutionException("The I/O lane rejected the task, " + ioQueueCapacity + " tasks are already queued");
+        return wrapper;
+    }
+
+    /**
+     * Schedules the specified blocking task to be executed on the I/O lane after the specified delay.
+     * If the lane's queue is full once the delay has passed, the task is cancelled.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param task     Specified task.
+     * @param delay    The time delay to pass before the task should be executed.
+     * @param timeUnit The time unit for the time delay.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runIoDelayed(@NotNull Plugin plugin, @NotNull Runnable task, long delay, @NotNull TimeUnit timeUnit) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC_IO)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC_IO, task, () -> runIoDelayed(plugin, task, delay, timeUnit));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC_IO, task, delay, 0, timeUnit);
+        return ioLane().runDelayed(plugin, instrumented, delay, timeUnit);
+    }
+
+    private ExecutorScheduler ioLane() {
+        ExecutorScheduler scheduler = ioScheduler;
+        if (scheduler != null) return scheduler;
+
+        synchronized (this) {
+            if (ioScheduler == null) {
+                ioExecutor = ExecutorScheduler.newBoundedExecutor("FoliaScheduler I/O Thread", ioThreads, ioQueueCapacity);
+                ioScheduler = new ExecutorScheduler(ioExecutor, SchedulerType.ASYNC_IO);
+            }
+
+            return ioScheduler;
+        }
+    }
+
+    /**
+     * Sizes the priority lanes. Defaults to one worker per processor, at least two, and an aging period of 500 milliseconds.
+     *
+     * @param parallelism The amount of prioritized tasks which may run at once
+     * @param aging       How long a task waits before it is taken as if it were one lane higher
+     * @param timeUnit    The time unit of the aging period
+     * @throws IllegalStateException If the priority lanes have already been used
+     */
+    public synchronized void configurePriorityLanes(int parallelism, long aging, @NotNull TimeUnit timeUnit) {
+        if (parallelism < 1 || aging < 1) throw new IllegalArgumentException("The priority lanes need at least one worker and a positive aging period");
+        if (prioritySchedulers != null) throw new IllegalStateException("The priority lanes have already been used");
+
+        priorityParallelism = parallelism;
+        priorityAgingNanos = Math.min(timeUnit.toNanos(aging), Long.MAX_VALUE / TaskPriority.values().length);
+    }
+
+    /**
+     * @param priority The lane
+     * @return The amount of tasks waiting in the lane
+     */
+    public int getPriorityBacklog(@NotNull TaskPriority priority) {
+        PriorityLanes lanes;
+        synchronized (this) {
+            lanes = priorityLanes;
+        }
+
+        return lanes != null ? lanes.getBacklog(priority) : 0;
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously as soon as its priority allows.
+     * The task is still tracked by its lane so {@link #cancel(Plugin)} reaches it, only its handle is not returned.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param priority The lane the task waits in.
+     * @param run      Specified task.
+     */
+    public void execute(@NotNull Plugin plugin, @NotNull TaskPriority priority, @NotNull Runnable run) {
+        runNow(plugin, priority, run);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously as soon as its priority allows.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param priority The lane the task waits in.
+     * @param task     Specified task.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runNow(@NotNull Plugin plugin, @NotNull TaskPriority priority, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runNow(plugin, priority, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task);
+        return priorityLane(priority).runNow(plugin, instrumented);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the specified delay, as soon as its priority allows.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param priority The lane the task waits in once the delay has passed.
+     * @param task     Specified task.
+     * @param delay    The time delay to pass before the task should be executed.
+     * @param timeUnit The time unit for the time delay.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull TaskPriority priority, @NotNull Runnable task, long delay, @NotNull TimeUnit timeUnit) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runDelayed(plugin, priority, task, delay, timeUnit));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, delay, 0, timeUnit);
+        return priorityLane(priority).runDelayed(plugin, instrumented, delay, timeUnit);
+    }
+
+    private ExecutorScheduler priorityLane(TaskPriority priority) {
+        ExecutorScheduler[] schedulers = prioritySchedulers;
+        if (schedulers != null) return schedulers[priority.ordinal()];
+
+        synchronized (this) {
+            if (prioritySchedulers == null) {
+                priorityLanes = new PriorityLanes(this::dispatchToPlatform, priorityParallelism, priorityAgingNanos);
+
+                TaskPriority[] priorities = TaskPriority.values();
+                schedulers = new ExecutorScheduler[priorities.length];
+                // Every lane only dispatches, their delays all share the one timer thread of ExecutorScheduler
+                for (TaskPriority lane : priorities) {
+                    schedulers[lane.ordinal()] = new ExecutorScheduler(priorityLanes.lane(lane));
+                }
+                prioritySchedulers = schedulers;
+            }
+
+            return prioritySchedulers[priority.ordinal()];
+        }
+    }
+
+    private void dispatchToPlatform(Plugin plugin, Runnable task) {
+        if (!FoliaScheduler.isFolia()) {
+            bukkitScheduler.runTaskAsynchronously(plugin, task);
+            return;
+        }
+
+        asyncScheduler.runNow(plugin, TaskAdapters.consumer(task));
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously immediately, without creating a task handle.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param run    Specified task.
+     */
+    public void execute(@NotNull Plugin plugin, @NotNull Runnable run) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.ASYNC, run, () -> execute(plugin, run));
+            return;
+        }
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, run);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            executor.runNow(plugin, instrumented);
+            return;
+        }
+
+        if (!FoliaScheduler.isFolia()) {
+            bukkitScheduler.runTaskAsynchronously(plugin, instrumented);
+            return;
         }
+
+        asyncScheduler.runNow(plugin, TaskAdapters.consumer(instrumented));
     }
 
     /**
@@ -57,11 +470,44 @@ public final class AsyncScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runNow(@NotNull Plugin plugin, @NotNull Consumer<Object> task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runNow(plugin, task));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runNow(plugin, TaskAdapters.runnable(instrumented));
+        }
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskAsynchronously(plugin, () -> task.accept(null)));
+            return new TaskWrapper(bukkitScheduler.runTaskAsynchronously(plugin, TaskAdapters.runnable(instrumented)), SchedulerType.ASYNC);
         }
 
-        return new TaskWrapper(asyncScheduler.runNow(plugin, (o) -> task.accept(null)));
+        return new TaskWrapper(asyncScheduler.runNow(plugin, TaskAdapters.consumer(instrumented)), SchedulerType.ASYNC);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously immediately.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runNow(@NotNull Plugin plugin, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runNow(plugin, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runNow(plugin, instrumented);
+        }
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskAsynchronously(plugin, instrumented), SchedulerType.ASYNC);
+        }
+
+        return new TaskWrapper(asyncScheduler.runNow(plugin, TaskAdapters.consumer(instrumented)), SchedulerType.ASYNC);
     }
 
     /**
@@ -74,11 +520,46 @@ public final class AsyncScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Consumer<Object> task, long delay, @NotNull TimeUnit timeUnit) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runDelayed(plugin, task, delay, timeUnit));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, delay, 0, timeUnit);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runDelayed(plugin, TaskAdapters.runnable(instrumented), delay, timeUnit);
+        }
+
+        if (!FoliaScheduler.isFolia()) {
+            return timerScheduler.runDelayed(plugin, TaskAdapters.runnable(instrumented), delay, timeUnit);
+        }
+
+        return new TaskWrapper(asyncScheduler.runDelayed(plugin, TaskAdapters.consumer(instrumented), delay, timeUnit), SchedulerType.ASYNC);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the specified delay.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param task     Specified task.
+     * @param delay    The time delay to pass before the task should be executed.
+     * @param timeUnit The time unit for the time delay.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Runnable task, long delay, @NotNull TimeUnit timeUnit) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runDelayed(plugin, task, delay, timeUnit));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, delay, 0, timeUnit);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runDelayed(plugin, instrumented, delay, timeUnit);
+        }
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskLaterAsynchronously(plugin, () -> task.accept(null), convertTimeToTicks(delay, timeUnit)));
+            return timerScheduler.runDelayed(plugin, instrumented, delay, timeUnit);
         }
 
-        return new TaskWrapper(asyncScheduler.runDelayed(plugin, (o) -> task.accept(null), delay, timeUnit));
+        return new TaskWrapper(asyncScheduler.runDelayed(plugin, TaskAdapters.consumer(instrumented), delay, timeUnit), SchedulerType.ASYNC);
     }
 
     /**
@@ -92,13 +573,51 @@ public final class AsyncScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Consumer<Object> task, long delay, long period, @NotNull TimeUnit timeUnit) {
-        if (period < 1) period = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runAtFixedRate(plugin, task, delay, period, timeUnit));
+
+        long clampedPeriod = Math.max(1, period);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, delay, clampedPeriod, timeUnit);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runAtFixedRate(plugin, TaskAdapters.runnable(instrumented), delay, clampedPeriod, timeUnit);
+        }
+
+        if (!FoliaScheduler.isFolia()) {
+            return timerScheduler.runAtFixedRate(plugin, TaskAdapters.runnable(instrumented), delay, clampedPeriod, timeUnit);
+        }
+
+        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), delay, clampedPeriod, timeUnit), SchedulerType.ASYNC);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the initial delay has passed, and then periodically executed with the specified period.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param task     Specified task.
+     * @param delay    The time delay to pass before the task should be executed.
+     * @param period   The time period between each task execution. Any value less-than 1 is treated as 1.
+     * @param timeUnit The time unit for the initial delay and period.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, long delay, long period, @NotNull TimeUnit timeUnit) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runAtFixedRate(plugin, task, delay, period, timeUnit));
+
+        long clampedPeriod = Math.max(1, period);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, delay, clampedPeriod, timeUnit);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runAtFixedRate(plugin, instrumented, delay, clampedPeriod, timeUnit);
+        }
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskTimerAsynchronously(plugin, () -> task.accept(null), convertTimeToTicks(delay, timeUnit), convertTimeToTicks(period, timeUnit)));
+            return timerScheduler.runAtFixedRate(plugin, instrumented, delay, clampedPeriod, timeUnit);
         }
 
-        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, (o) -> task.accept(null), delay, period, timeUnit));
+        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), delay, clampedPeriod, timeUnit), SchedulerType.ASYNC);
     }
 
     /**
@@ -111,37 +630,181 @@ public final class AsyncScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Consumer<Object> task, long initialDelayTicks, long periodTicks) {
-        if (periodTicks < 1) periodTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runAtFixedRate(plugin, task, initialDelayTicks, periodTicks));
+
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, initialDelayTicks, clampedPeriod);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runAtFixedRate(plugin, TaskAdapters.runnable(instrumented), SchedulerDuration.ticksToNanos(initialDelayTicks), SchedulerDuration.ticksToNanos(clampedPeriod), TimeUnit.NANOSECONDS);
+        }
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskTimerAsynchronously(plugin, () -> task.accept(null), initialDelayTicks, periodTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskTimerAsynchronously(plugin, TaskAdapters.runnable(instrumented), initialDelayTicks, clampedPeriod), SchedulerType.ASYNC);
+        }
+
+        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), SchedulerDuration.ticksToNanos(initialDelayTicks), SchedulerDuration.ticksToNanos(clampedPeriod), TimeUnit.NANOSECONDS), SchedulerType.ASYNC);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the initial delay has passed, and then periodically executed.
+     *
+     * @param plugin            Plugin which owns the specified task.
+     * @param task              Specified task.
+     * @param initialDelayTicks The time delay in ticks to pass before the task should be executed.
+     * @param periodTicks       The time period in ticks between each task execution. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, long initialDelayTicks, long periodTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ASYNC)) return SubmissionLimiter.submit(plugin, SchedulerType.ASYNC, task, () -> runAtFixedRate(plugin, task, initialDelayTicks, periodTicks));
+
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ASYNC, task, initialDelayTicks, clampedPeriod);
+
+        ExecutorScheduler executor = executorScheduler;
+        if (executor != null) {
+            return executor.runAtFixedRate(plugin, instrumented, SchedulerDuration.ticksToNanos(initialDelayTicks), SchedulerDuration.ticksToNanos(clampedPeriod), TimeUnit.NANOSECONDS);
+        }
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskTimerAsynchronously(plugin, instrumented, initialDelayTicks, clampedPeriod), SchedulerType.ASYNC);
+        }
+
+        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), SchedulerDuration.ticksToNanos(initialDelayTicks), SchedulerDuration.ticksToNanos(clampedPeriod), TimeUnit.NANOSECONDS), SchedulerType.ASYNC);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the specified delay.
+     * Ticks are converted to time at {@link SchedulerDuration#MILLIS_PER_TICK} milliseconds per tick.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @param delay  The delay, in ticks or in time, to pass before the task should be executed.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Consumer<Object> task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the specified delay.
+     * Ticks are converted to time at {@link SchedulerDuration#MILLIS_PER_TICK} milliseconds per tick.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @param delay  The delay, in ticks or in time, to pass before the task should be executed.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Runnable task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the specified task to be executed asynchronously after the initial delay has passed, and then periodically executed with the specified period.
+     * If both durations are given in ticks, the task is scheduled as with {@link #runAtFixedRate(Plugin, Consumer, long, long)}.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @param delay  The delay, in ticks or in time, to pass before the task should be executed.
+     * @param period The period, in ticks or in time, between each task execution.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Consumer<Object> task, @NotNull SchedulerDuration delay, @NotNull SchedulerDuration period) {
+        if (delay.isTicks() && period.isTicks()) {
+            return runAtFixedRate(plugin, task, delay.toTicks(), period.toTicks());
         }
 
-        return new TaskWrapper(asyncScheduler.runAtFixedRate(plugin, (o) -> task.accept(null), initialDelayTicks, periodTicks, TimeUnit.MILLISECONDS));
+        return runAtFixedRate(plugin, task, delay.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Attempts to cancel all tasks scheduled by the specified plugin.
+     * Schedules the specified task to be executed asynchronously after the initial delay has passed, and then periodically executed with the specified period.
+     * If both durations are given in ticks, the task is scheduled as with {@link #runAtFixedRate(Plugin, Runnable, long, long)}.
+     *
+     * @param plugin Plugin which owns the specified task.
+     * @param task   Specified task.
+     * @param delay  The delay, in ticks or in time, to pass before the task should be executed.
+     * @param period The period, in ticks or in time, between each task execution.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, @NotNull SchedulerDuration delay, @NotNull SchedulerDuration period) {
+        if (delay.isTicks() && period.isTicks()) {
+            return runAtFixedRate(plugin, task, delay.toTicks(), period.toTicks());
+        }
+
+        return runAtFixedRate(plugin, task, delay.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Attempts to cancel all asynchronous tasks scheduled by the specified plugin.
+     * Tasks on our own executors and timers are always cancelled. On Bukkit, while the {@link TaskRegistry} is enabled
+     * only the tasks it tracks are cancelled as well and the plugin's other tasks are left alone, otherwise every Bukkit task of the plugin is cancelled.
      *
      * @param plugin Specified plugin.
      */
     public void cancel(@NotNull Plugin plugin) {
+        synchronized (this) {
+            if (virtualThreadScheduler != null) virtualThreadScheduler.cancelTasks(plugin);
+            if (forkJoinScheduler != null) forkJoinScheduler.cancelTasks(plugin);
+            if (ioScheduler != null) ioScheduler.cancelTasks(plugin);
+            if (prioritySchedulers != null) {
+                for (ExecutorScheduler scheduler : prioritySchedulers) scheduler.cancelTasks(plugin);
+            }
+        }
+
+        TaskRegistry registry = FoliaScheduler.getTaskRegistry();
         if (!FoliaScheduler.isFolia()) {
-            bukkitScheduler.cancelTasks(plugin);
-            return;
+            timerScheduler.cancelTasks(plugin);
+            if (!registry.isEnabled()) bukkitScheduler.cancelTasks(plugin);
+        } else {
+            asyncScheduler.cancelTasks(plugin);
         }
 
-        asyncScheduler.cancelTasks(plugin);
+        registry.cancelAll(plugin, SchedulerType.ASYNC);
+    }
+
+    /**
+     * Cancels the plugin's tasks and stops the threads of our own executors.
+     * Executors are started again if they are used afterwards.
+     *
+     * @param plugin The plugin being disabled
+     */
+    synchronized void shutdown(@NotNull Plugin plugin) {
+        cancel(plugin);
+        executorScheduler = null;
+
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdownNow();
+            virtualThreadExecutor = null;
+            virtualThreadScheduler = null;
+        }
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdownNow();
+            forkJoinPool = null;
+            forkJoinScheduler = null;
+        }
+        if (ioExecutor != null) {
+            ioExecutor.shutdownNow();
+            ioExecutor = null;
+            ioScheduler = null;
+        }
     }
 
     /**
-     * Converts the specified time to ticks.
+     * Computes the value of a part of the range split by {@link #splitAsync}.
      *
-     * @param time     The time to convert.
-     * @param timeUnit The time unit of the time.
-     * @return The time converted to ticks.
+     * @param <T> The type of the computed value
      */
-    private long convertTimeToTicks(long time, TimeUnit timeUnit) {
-        return timeUnit.toMillis(time) / 50;
+    @FunctionalInterface
+    public interface RangeFunction<T> {
+        /**
+         * @param from The first index of the part, inclusive
+         * @param to   The last index of the part, exclusive
+         * @return The value of the part
+         */
+        T apply(int from, int to);
     }
-}
\ No newline at end of file
+}
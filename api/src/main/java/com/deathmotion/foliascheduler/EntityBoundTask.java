@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Bukkit task bound to the lifecycle of an entity, mirroring Folia's entity scheduler on Bukkit.
+ * <p>
+ * Before every run the entity is checked; once it is retired the retired callback runs instead of the task,
+ * the task cancels itself, and both callbacks are released so they can be garbage collected.
+ */
+final class EntityBoundTask extends BukkitRunnable {
+
+    private final Entity entity;
+    private final boolean repeating;
+    private Runnable task;
+    private Runnable retired;
+
+    EntityBoundTask(@NotNull Entity entity, @NotNull Runnable task, @Nullable Runnable retired, boolean repeating) {
+        this.entity = entity;
+        this.task = task;
+        this.retired = retired;
+        this.repeating = repeating;
+    }
+
+    /**
+     * Whether the entity would be retired on Folia: players once they have logged out, other entities once they have been removed or died.
+     *
+     * @param entity The entity to check
+     * @return true if tasks should no longer run for the entity
+     */
+    static boolean isRetired(@NotNull Entity entity) {
+        if (entity instanceof Player) return !((Player) entity).isOnline();
+        return !entity.isValid();
+    }
+
+    @Override
+    public void run() {
+        Runnable task = this.task;
+        if (task == null) return;
+
+        if (isRetired(entity)) {
+            Runnable retired = this.retired;
+            release();
+            cancel();
+
+            if (retired != null) retired.run();
+            return;
+        }
+
+        if (!repeating) release();
+        task.run();
+    }
+
+    private void release() {
+        task = null;
+        retired = null;
+    }
+}
@@ -25,21 +25,44 @@
 package com.deathmotion.foliascheduler;
 
 import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * Represents a scheduler for executing entity tasks.
+ * <p>
+ * Tasks accepting a {@link Consumer} are handed to Folia as-is.
+ * On Folia the consumer receives the platform's scheduled task, on Bukkit it receives {@code null}.
+ * <p>
+ * On Bukkit, tasks follow the entity's lifecycle like they do on Folia: once a player has logged out,
+ * or another entity has been removed or died, the retired callback runs instead and the task is cancelled.
+ * A task submitted for an entity which is already retired is not scheduled, and its retired callback does not run,
+ * which the caller learns from the {@code false} or {@code null} returned.
+ * <p>
+ * A submission made while the plugin is limited by the {@link SubmissionLimiter} may be held back, so it returns as if it was scheduled.
+ * If its entity is retired by the time it is submitted, its retired callback runs instead, on the submitting thread.
  */
 public final class EntityScheduler {
     private BukkitScheduler bukkitScheduler;
 
+    private final TaskCoalescer coalescer = new TaskCoalescer();
+
     EntityScheduler() {
         if (!FoliaScheduler.isFolia()) {
             bukkitScheduler = Bukkit.getScheduler();
@@ -58,14 +81,132 @@ public final class EntityScheduler {
      * @param run     The callback to run after the specified delay, may not be null.
      * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
      * @param delay   The delay in ticks before the run callback is invoked.
+     * @return false if the entity is retired and the task was not scheduled, always true while the plugin is limited by the {@link SubmissionLimiter}
      */
-    public void execute(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable run, @Nullable Runnable retired, long delay) {
+    public boolean execute(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable run, @Nullable Runnable retired, long delay) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.ENTITY, run, () -> {
+                if (!execute(entity, plugin, run, retired, delay) && retired != null) retired.run();
+            });
+            return true;
+        }
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, run, delay, 0);
+
         if (!FoliaScheduler.isFolia()) {
-            bukkitScheduler.runTaskLater(plugin, run, delay);
+            if (EntityBoundTask.isRetired(entity)) return false;
+
+            new EntityBoundTask(entity, instrumented, retired, false).runTaskLater(plugin, delay);
+            return true;
+        }
+
+        return entity.getScheduler().execute(plugin, instrumented, retired, delay);
+    }
+
+    /**
+     * Runs the task right away if the current thread owns the entity, otherwise schedules it to execute on the next tick.
+     * Note that the retired callback is invoked in critical code, so it should not attempt to remove the entity,
+     * remove other entities, load chunks, load worlds, modify ticket levels, etc.
+     * <p>
+     * It is guaranteed that the run and retired callback are invoked on the region which owns the entity.
+     *
+     * @param plugin  Plugin which owns the specified task.
+     * @param run     The callback to run, may not be null.
+     * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @return false if the entity is retired and the task neither ran nor was scheduled, see {@link #execute}
+     */
+    public boolean executeOrRun(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable run, @Nullable Runnable retired) {
+        // On Bukkit the main thread owns every entity, including removed ones
+        if (ThreadOwnership.owns(entity) && !EntityBoundTask.isRetired(entity)) {
+            SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, run).run();
+            return true;
+        }
+
+        return execute(entity, plugin, run, retired, 1);
+    }
+
+    /**
+     * Schedules a task to execute on the next tick, unless a task with the same key is already pending.
+     * The key is released right before the task runs or is retired, so submissions made while it runs are scheduled again,
+     * and once the task has been cancelled.
+     * Note that the retired callback is invoked in critical code, so it should not attempt to remove the entity,
+     * remove other entities, load chunks, load worlds, modify ticket levels, etc.
+     * <p>
+     * It is guaranteed that the run and retired callback are invoked on the region which owns the entity.
+     *
+     * @param plugin  Plugin which owns the specified task.
+     * @param key     The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param run     The callback to run on the next tick, may not be null.
+     * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @return true if the task was scheduled, false if a task with the same key is already pending or the entity is retired
+     */
+    public boolean scheduleOnce(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Object key, @NotNull Runnable run, @Nullable Runnable retired) {
+        TaskCoalescer.Claim claim = coalescer.claim(key);
+        if (claim == null) return false;
+
+        TaskWrapper task;
+        try {
+            task = run(entity, plugin, coalescer.wrap(key, claim, run), coalescer.wrapRetired(key, claim, retired));
+        } catch (RuntimeException e) {
+            coalescer.release(key, claim);
+            throw e;
+        }
+
+        if (task == null) {
+            coalescer.release(key, claim);
+            return false;
+        }
+
+        claim.track(task);
+        return true;
+    }
+
+    /**
+     * Runs the action on the next tick for every entity in the collection, on the thread which owns that entity.
+     * <p>
+     * Rather than one task per entity, the entities are grouped by the region section they are in and one task is scheduled per group.
+     * On Bukkit all entities are handled by a single task.
+     * Entities which are retired by the time their group runs are skipped,
+     * and on Folia an entity which has moved to another region in the meantime is handed to its own scheduler instead.
+     *
+     * @param plugin   Plugin which owns the specified task.
+     * @param entities The entities to run the action for, the collection is copied.
+     * @param action   The action to run for every entity.
+     * @param <T>      The type of the entities
+     */
+    public <T extends Entity> void forEach(@NotNull Plugin plugin, @NotNull Collection<? extends T> entities, @NotNull Consumer<? super T> action) {
+        if (entities.isEmpty()) return;
+
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) {
+            List<T> limitedEntities = new ArrayList<>(entities);
+            SubmissionLimiter.execute(plugin, SchedulerType.ENTITY, action, () -> forEach(plugin, limitedEntities, action));
             return;
         }
 
-        entity.getScheduler().execute(plugin, run, retired, delay);
+        if (!FoliaScheduler.isFolia()) {
+            List<T> group = new ArrayList<>(entities);
+            bukkitScheduler.runTask(plugin, SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, () -> runGroup(plugin, group, action), 1, 0));
+            return;
+        }
+
+        Location location = new Location(null, 0, 0, 0);
+        Map<World, Map<Long, List<T>>> sections = new LinkedHashMap<>();
+        for (T entity : entities) {
+            entity.getLocation(location);
+            sections.computeIfAbsent(location.getWorld(), w -> new HashMap<>())
+                    .computeIfAbsent(sectionKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), k -> new ArrayList<>())
+                    .add(entity);
+        }
+
+        io.papermc.paper.threadedregions.scheduler.RegionScheduler regionScheduler = Bukkit.getRegionScheduler();
+        for (Map.Entry<World, Map<Long, List<T>>> world : sections.entrySet()) {
+            for (Map.Entry<Long, List<T>> section : world.getValue().entrySet()) {
+                long key = section.getKey();
+                List<T> group = section.getValue();
+                Runnable task = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, () -> runGroup(plugin, group, action), 1, 0);
+                regionScheduler.execute(plugin, world.getKey(), (int) key << RegionScheduler.SECTION_CHUNK_SHIFT, (int) (key >> 32) << RegionScheduler.SECTION_CHUNK_SHIFT, task);
+            }
+        }
     }
 
     /**
@@ -83,11 +224,43 @@ public final class EntityScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper run(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Consumer<Object> task, @Nullable Runnable retired) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(run(entity, plugin, task, retired), retired));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task);
+
+        if (!FoliaScheduler.isFolia()) {
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, TaskAdapters.runnable(instrumented), retired, false).runTask(plugin), SchedulerType.ENTITY);
+        }
+
+        return wrap(entity.getScheduler().run(plugin, TaskAdapters.consumer(instrumented), retired));
+    }
+
+    /**
+     * Schedules a task to execute on the next tick. If the task failed to schedule because the scheduler is retired (entity removed),
+     * then returns null. Otherwise, either the task callback will be invoked after the specified delay,
+     * or the retired callback will be invoked if the scheduler is retired.
+     * Note that the retired callback is invoked in critical code, so it should not attempt to remove the entity,
+     * remove other entities, load chunks, load worlds, modify ticket levels, etc.
+     * <p>
+     * It is guaranteed that the task and retired callback are invoked on the region which owns the entity.
+     *
+     * @param plugin  The plugin that owns the task
+     * @param task    The task to execute
+     * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper run(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable task, @Nullable Runnable retired) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(run(entity, plugin, task, retired), retired));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task);
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTask(plugin, () -> task.accept(null)));
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, instrumented, retired, false).runTask(plugin), SchedulerType.ENTITY);
         }
 
-        return new TaskWrapper(entity.getScheduler().run(plugin, (o) -> task.accept(null), retired));
+        return wrap(entity.getScheduler().run(plugin, TaskAdapters.consumer(instrumented), retired));
     }
 
     /**
@@ -105,13 +278,47 @@ public final class EntityScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runDelayed(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Consumer<Object> task, @Nullable Runnable retired, long delayTicks) {
-        if (delayTicks < 1) delayTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(runDelayed(entity, plugin, task, retired, delayTicks), retired));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task, clampedDelay, 0);
+
+        if (!FoliaScheduler.isFolia()) {
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, TaskAdapters.runnable(instrumented), retired, false).runTaskLater(plugin, clampedDelay), SchedulerType.ENTITY);
+        }
+
+        return wrap(entity.getScheduler().runDelayed(plugin, TaskAdapters.consumer(instrumented), retired, clampedDelay));
+    }
+
+    /**
+     * Schedules a task with the given delay. If the task failed to schedule because the scheduler is retired (entity removed),
+     * then returns null. Otherwise, either the task callback will be invoked after the specified delay, or the retired callback will be invoked if the scheduler is retired.
+     * Note that the retired callback is invoked in critical code, so it should not attempt to remove the entity,
+     * remove other entities, load chunks, load worlds, modify ticket levels, etc.
+     * <p>
+     * It is guaranteed that the task and retired callback are invoked on the region which owns the entity.
+     *
+     * @param plugin     The plugin that owns the task
+     * @param task       The task to execute
+     * @param retired    Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param delayTicks The delay in ticks before the run callback is invoked. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable task, @Nullable Runnable retired, long delayTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(runDelayed(entity, plugin, task, retired, delayTicks), retired));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task, clampedDelay, 0);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, () -> task.accept(null), delayTicks));
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, instrumented, retired, false).runTaskLater(plugin, clampedDelay), SchedulerType.ENTITY);
         }
 
-        return new TaskWrapper(entity.getScheduler().runDelayed(plugin, (o) -> task.accept(null), retired, delayTicks));
+        return wrap(entity.getScheduler().runDelayed(plugin, TaskAdapters.consumer(instrumented), retired, clampedDelay));
     }
 
     /**
@@ -130,13 +337,156 @@ public final class EntityScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Consumer<Object> task, @Nullable Runnable retired, long initialDelayTicks, long periodTicks) {
-        if (initialDelayTicks < 1) initialDelayTicks = 1;
-        if (periodTicks < 1) periodTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(runAtFixedRate(entity, plugin, task, retired, initialDelayTicks, periodTicks), retired));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task, clampedInitialDelay, clampedPeriod);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, () -> task.accept(null), initialDelayTicks, periodTicks));
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, TaskAdapters.runnable(instrumented), retired, true).runTaskTimer(plugin, clampedInitialDelay, clampedPeriod), SchedulerType.ENTITY);
         }
 
-        return new TaskWrapper(entity.getScheduler().runAtFixedRate(plugin, (o) -> task.accept(null), retired, initialDelayTicks, periodTicks));
+        return wrap(entity.getScheduler().runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), retired, clampedInitialDelay, clampedPeriod));
+    }
+
+    /**
+     * Schedules a repeating task with the given delay and period. If the task failed to schedule because the scheduler is retired (entity removed),
+     * then returns null. Otherwise, either the task callback will be invoked after the specified delay, or the retired callback will be invoked if the scheduler is retired.
+     * Note that the retired callback is invoked in critical code, so it should not attempt to remove the entity,
+     * remove other entities, load chunks, load worlds, modify ticket levels, etc.
+     * <p>
+     * It is guaranteed that the task and retired callback are invoked on the region which owns the entity.
+     *
+     * @param plugin            The plugin that owns the task
+     * @param task              The task to execute
+     * @param retired           Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param initialDelayTicks The initial delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @param periodTicks       The period, in ticks. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable task, @Nullable Runnable retired, long initialDelayTicks, long periodTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.ENTITY)) return SubmissionLimiter.submit(plugin, SchedulerType.ENTITY, task, () -> orRetired(runAtFixedRate(entity, plugin, task, retired, initialDelayTicks, periodTicks), retired));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.ENTITY, task, clampedInitialDelay, clampedPeriod);
+
+        if (!FoliaScheduler.isFolia()) {
+            if (EntityBoundTask.isRetired(entity)) return null;
+            return new TaskWrapper(new EntityBoundTask(entity, instrumented, retired, true).runTaskTimer(plugin, clampedInitialDelay, clampedPeriod), SchedulerType.ENTITY);
+        }
+
+        return wrap(entity.getScheduler().runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), retired, clampedInitialDelay, clampedPeriod));
+    }
+
+    /**
+     * Schedules a task with the given delay, in the same way as {@link #runDelayed(Entity, Plugin, Consumer, Runnable, long)}.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param entity  The entity that owns the task
+     * @param plugin  The plugin that owns the task
+     * @param task    The task to execute
+     * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param delay   The delay, in ticks or in time, before the run callback is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Consumer<Object> task, @Nullable Runnable retired, @NotNull SchedulerDuration delay) {
+        return runDelayed(entity, plugin, task, retired, delay.toTicks());
+    }
+
+    /**
+     * Schedules a task with the given delay, in the same way as {@link #runDelayed(Entity, Plugin, Runnable, Runnable, long)}.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param entity  The entity that owns the task
+     * @param plugin  The plugin that owns the task
+     * @param task    The task to execute
+     * @param retired Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param delay   The delay, in ticks or in time, before the run callback is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable task, @Nullable Runnable retired, @NotNull SchedulerDuration delay) {
+        return runDelayed(entity, plugin, task, retired, delay.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task with the given delay and period, in the same way as {@link #runAtFixedRate(Entity, Plugin, Consumer, Runnable, long, long)}.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param entity       The entity that owns the task
+     * @param plugin       The plugin that owns the task
+     * @param task         The task to execute
+     * @param retired      Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param initialDelay The initial delay, in ticks or in time, before the run callback is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Consumer<Object> task, @Nullable Runnable retired, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(entity, plugin, task, retired, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task with the given delay and period, in the same way as {@link #runAtFixedRate(Entity, Plugin, Runnable, Runnable, long, long)}.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param entity       The entity that owns the task
+     * @param plugin       The plugin that owns the task
+     * @param task         The task to execute
+     * @param retired      Retire callback to run if the entity is retired before the run callback can be invoked, may be null.
+     * @param initialDelay The initial delay, in ticks or in time, before the run callback is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Entity entity, @NotNull Plugin plugin, @NotNull Runnable task, @Nullable Runnable retired, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(entity, plugin, task, retired, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Attempts to cancel all tasks scheduled by the specified plugin on any entity.
+     * Only tasks tracked by the {@link TaskRegistry} are cancelled: tasks with a {@link TaskWrapper} scheduled while it is enabled,
+     * or tagged with a group. Tasks submitted through {@code execute} are not tracked.
+     *
+     * @param plugin Specified plugin.
+     */
+    public void cancel(@NotNull Plugin plugin) {
+        FoliaScheduler.getTaskRegistry().cancelAll(plugin, SchedulerType.ENTITY);
+    }
+
+    /**
+     * Runs the retired callback of a held back submission whose entity was retired before it could be submitted.
+     */
+    private static @Nullable TaskWrapper orRetired(@Nullable TaskWrapper task, @Nullable Runnable retired) {
+        if (task == null && retired != null) retired.run();
+        return task;
+    }
+
+    private static @Nullable TaskWrapper wrap(@Nullable ScheduledTask scheduledTask) {
+        // Folia's entity scheduler returns no task for retired entities
+        return scheduledTask != null ? new TaskWrapper(scheduledTask, SchedulerType.ENTITY) : null;
+    }
+
+    private <T extends Entity> void runGroup(Plugin plugin, List<T> group, Consumer<? super T> action) {
+        for (T entity : group) {
+            if (EntityBoundTask.isRetired(entity)) continue;
+
+            if (!ThreadOwnership.owns(entity)) {
+                entity.getScheduler().execute(plugin, () -> action.accept(entity), null, 1);
+                continue;
+            }
+
+            try {
+                action.accept(entity);
+            } catch (Throwable throwable) {
+                plugin.getLogger().log(Level.WARNING, "An entity task generated an exception", throwable);
+            }
+        }
+    }
+
+    private static long sectionKey(int chunkX, int chunkZ) {
+        return ((long) (chunkZ >> RegionScheduler.SECTION_CHUNK_SHIFT) << 32) | ((chunkX >> RegionScheduler.SECTION_CHUNK_SHIFT) & 0xFFFFFFFFL);
     }
-}
\ No newline at end of file
+}
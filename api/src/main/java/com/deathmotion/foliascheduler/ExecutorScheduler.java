@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Schedules asynchronous tasks on a {@link Dispatcher} of our own, using a single daemon timer thread for delays.
+ * The timer is shared by every instance and only hands tasks over to their dispatcher, so it is never blocked by the tasks themselves,
+ * and delays are kept to the precision of the requested {@link TimeUnit} rather than rounded to ticks.
+ * <p>
+ * Tasks are tracked per plugin, so {@link #cancelTasks(Plugin)} behaves like the platform schedulers.
+ */
+final class ExecutorScheduler {
+
+    private static volatile @Nullable ScheduledThreadPoolExecutor timer;
+
+    private final Dispatcher dispatcher;
+    private final SchedulerType schedulerType;
+    private final Map<Plugin, Set<PluginTask>> tasks = new ConcurrentHashMap<>();
+
+    ExecutorScheduler(@NotNull Executor executor) {
+        this(executor, SchedulerType.ASYNC);
+    }
+
+    ExecutorScheduler(@NotNull Executor executor, @NotNull SchedulerType schedulerType) {
+        this((plugin, task) -> executor.execute(task), schedulerType);
+    }
+
+    ExecutorScheduler(@NotNull Dispatcher dispatcher) {
+        this(dispatcher, SchedulerType.ASYNC);
+    }
+
+    ExecutorScheduler(@NotNull Dispatcher dispatcher, @NotNull SchedulerType schedulerType) {
+        this.dispatcher = dispatcher;
+        this.schedulerType = schedulerType;
+    }
+
+    /**
+     * Stops the shared timer thread. Delayed tasks which are still waiting are dropped,
+     * the timer is started again by the next delayed task.
+     */
+    static synchronized void shutdownTimer() {
+        ScheduledThreadPoolExecutor current = timer;
+        if (current == null) return;
+
+        timer = null;
+        current.shutdownNow();
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor current = timer;
+        if (current != null) return current;
+
+        synchronized (ExecutorScheduler.class) {
+            if (timer == null) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable, "FoliaScheduler Timer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.setRemoveOnCancelPolicy(true);
+                timer = executor;
+            }
+
+            return timer;
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor, which is only available on Java 21 and newer.
+     * The library targets Java 8, so the factory method is looked up at runtime.
+     *
+     * @return The executor, or null if the running JVM does not support virtual threads
+     */
+    static @Nullable ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a fixed-size pool of daemon threads with a bounded queue, which rejects tasks once the queue is full.
+     * Idle threads are stopped after a minute, so an unused pool holds no threads.
+     *
+     * @param threadName    The name of the threads, followed by their number
+     * @param threads       The amount of threads
+     * @param queueCapacity The amount of tasks which may wait for a thread
+     * @return The executor
+     */
+    static ThreadPoolExecutor newBoundedExecutor(@NotNull String threadName, int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, threadName + " #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    TaskWrapper runNow(@NotNull Plugin plugin, @NotNull Runnable task) {
+        PluginTask pluginTask = track(new PluginTask(plugin, task, false));
+        dispatch(pluginTask);
+        return new TaskWrapper(plugin, pluginTask, schedulerType);
+    }
+
+    TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Runnable task, long delay, @NotNull TimeUnit timeUnit) {
+        PluginTask pluginTask = track(new PluginTask(plugin, task, false));
+        pluginTask.setTimerFuture(timer().schedule(() -> dispatch(pluginTask), delay, timeUnit));
+        return new TaskWrapper(plugin, pluginTask, schedulerType);
+    }
+
+    TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, long delay, long period, @NotNull TimeUnit timeUnit) {
+        PluginTask pluginTask = track(new PluginTask(plugin, task, true));
+        pluginTask.setTimerFuture(timer().scheduleAtFixedRate(() -> dispatch(pluginTask), delay, period, timeUnit));
+        return new TaskWrapper(plugin, pluginTask, schedulerType);
+    }
+
+    void cancelTasks(@NotNull Plugin plugin) {
+        Set<PluginTask> pluginTasks = tasks.remove(plugin);
+        if (pluginTasks == null) return;
+
+        for (PluginTask pluginTask : pluginTasks) {
+            pluginTask.cancel(false);
+        }
+    }
+
+    /**
+     * Hands the task over to the dispatcher. A task which can no longer be dispatched,
+     * for example because its plugin has been disabled or a bounded queue is full, is cancelled instead.
+     */
+    private void dispatch(PluginTask pluginTask) {
+        try {
+            dispatcher.dispatch(pluginTask.plugin, pluginTask);
+        } catch (RuntimeException e) {
+            if (pluginTask.cancel(false)) FoliaScheduler.getMetrics().recordCancellation(pluginTask.plugin, schedulerType);
+        }
+    }
+
+    private PluginTask track(PluginTask pluginTask) {
+        tasks.computeIfAbsent(pluginTask.plugin, plugin -> ConcurrentHashMap.newKeySet()).add(pluginTask);
+        return pluginTask;
+    }
+
+    /**
+     * Runs a due task on the thread it belongs on.
+     */
+    interface Dispatcher {
+        void dispatch(@NotNull Plugin plugin, @NotNull Runnable task);
+    }
+
+    /**
+     * Catches what a repeating run throws, as {@link FutureTask#runAndReset()} stops the task for good once a run throws.
+     */
+    private static Runnable logExceptions(Plugin plugin, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                logException(plugin, throwable);
+            }
+        };
+    }
+
+    private static void logException(Plugin plugin, Throwable throwable) {
+        plugin.getLogger().log(Level.WARNING, "An asynchronous task generated an exception", throwable);
+    }
+
+    /**
+     * A task owned by a plugin, which removes itself from the tracked tasks once it is done or cancelled.
+     * Repeating runs never overlap; a run that is due while the previous one is still running is skipped.
+     * Like on Bukkit and Folia, a repeating run which throws is logged and the task keeps running.
+     */
+    private final class PluginTask extends FutureTask<Void> {
+
+        private final Plugin plugin;
+        private final boolean repeating;
+        private volatile Future<?> timerFuture;
+
+        private PluginTask(Plugin plugin, Runnable task, boolean repeating) {
+            super(repeating ? logExceptions(plugin, task) : task, null);
+            this.plugin = plugin;
+            this.repeating = repeating;
+        }
+
+        private void setTimerFuture(Future<?> timerFuture) {
+            this.timerFuture = timerFuture;
+            if (isDone()) timerFuture.cancel(false);
+        }
+
+        @Override
+        public void run() {
+            if (repeating) {
+                runAndReset();
+            } else {
+                super.run();
+            }
+        }
+
+        @Override
+        protected void setException(Throwable throwable) {
+            logException(plugin, throwable);
+            super.setException(throwable);
+        }
+
+        @Override
+        protected void done() {
+            Future<?> future = timerFuture;
+            if (future != null) future.cancel(false);
+
+            Set<PluginTask> pluginTasks = tasks.get(plugin);
+            if (pluginTasks != null) pluginTasks.remove(this);
+        }
+    }
+}
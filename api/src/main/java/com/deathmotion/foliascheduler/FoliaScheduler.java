@@ -26,50 +26,24 @@ package com.deathmotion.foliascheduler;
 
 import com.deathmotion.foliascheduler.internal.FSVersion;
 import com.deathmotion.foliascheduler.internal.FSVersions;
-import lombok.Getter;
-import org.bukkit.Bukkit;
-import org.bukkit.event.Event;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * Entry point to the schedulers.
+ * <p>
+ * Loading this class only checks the relocation and whether the server runs Folia.
+ * Every scheduler and service is created by a holder class the first time it is requested,
+ * so plugins only pay for the parts they use and shading the library adds little to server startup.
+ */
 @ApiStatus.NonExtendable
 public class FoliaScheduler {
     private static final boolean isFolia;
 
-    @Getter
-    private static final AsyncScheduler asyncScheduler;
-    @Getter
-    private static final EntityScheduler entityScheduler;
-    @Getter
-    private static final GlobalRegionScheduler globalRegionScheduler;
-    @Getter
-    private static final RegionScheduler regionScheduler;
-
-    private static Class<? extends Event> regionizedServerInitEventClass;
-
     static {
-        new RelocateCheck();
-
-        boolean folia;
-        try {
-            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
-            folia = true;
-
-            // Thanks for this code ViaVersion
-            // The class is only part of the Folia API, so we need to use reflections to get it
-            regionizedServerInitEventClass = (Class<? extends Event>) Class.forName("io.papermc.paper.threadedregions.RegionizedServerInitEvent");
-        } catch (ClassNotFoundException e) {
-            folia = false;
-        }
-
-        isFolia = folia;
-
-        asyncScheduler = new AsyncScheduler();
-        entityScheduler = new EntityScheduler();
-        globalRegionScheduler = new GlobalRegionScheduler();
-        regionScheduler = new RegionScheduler();
+        RelocateCheck.check();
+        isFolia = classExists("io.papermc.paper.threadedregions.RegionizedServer");
     }
 
     /**
@@ -79,6 +53,38 @@ public class FoliaScheduler {
         return isFolia;
     }
 
+    public static AsyncScheduler getAsyncScheduler() {
+        return AsyncSchedulerHolder.INSTANCE;
+    }
+
+    public static EntityScheduler getEntityScheduler() {
+        return EntitySchedulerHolder.INSTANCE;
+    }
+
+    public static GlobalRegionScheduler getGlobalRegionScheduler() {
+        return GlobalRegionSchedulerHolder.INSTANCE;
+    }
+
+    public static RegionScheduler getRegionScheduler() {
+        return RegionSchedulerHolder.INSTANCE;
+    }
+
+    public static SchedulerMetrics getMetrics() {
+        return MetricsHolder.INSTANCE;
+    }
+
+    public static TaskRegistry getTaskRegistry() {
+        return TaskRegistryHolder.INSTANCE;
+    }
+
+    public static SubmissionLimiter getSubmissionLimiter() {
+        return SubmissionLimiterHolder.INSTANCE;
+    }
+
+    public static SlowTaskWatchdog getSlowTaskWatchdog() {
+        return SlowTaskWatchdogHolder.INSTANCE;
+    }
+
     public static FSVersion getVersion() {
         return FSVersions.CURRENT;
     }
@@ -89,20 +95,75 @@ public class FoliaScheduler {
 
     /**
      * Run a task after the server has finished initializing.
-     * Undefined behavior if called after the server has finished initializing.
      * <p>
-     * We still need to use reflections to get the server init event class, as this is only part of the Folia API.
+     * Tasks are queued behind a single init hook per plugin and run in submission order.
+     * Once the server has finished initializing, tasks run right away on the global region, or are handed to it.
+     * A task running longer than a tick is logged.
      *
      * @param plugin Your plugin or PacketEvents
      * @param run    The task to run
      */
     public static void runTaskOnInit(Plugin plugin, Runnable run) {
-        if (!isFolia) {
-            Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, run);
-            return;
+        InitQueueHolder.INSTANCE.submit(plugin, run);
+    }
+
+    /**
+     * Stops every thread started by the library, call it from your plugin's {@code onDisable}.
+     * <p>
+     * The plugin's asynchronous tasks are cancelled, including those on our own executors which the platform does not know about,
+     * submissions held back by the {@link SubmissionLimiter} are cancelled and the {@link SlowTaskWatchdog} is disabled.
+     *
+     * @param plugin Your plugin
+     */
+    public static void shutdown(@NotNull Plugin plugin) {
+        AsyncSchedulerHolder.INSTANCE.shutdown(plugin);
+        SubmissionLimiterHolder.INSTANCE.shutdown();
+        SlowTaskWatchdogHolder.INSTANCE.disable();
+        ExecutorScheduler.shutdownTimer();
+    }
+
+    private static boolean classExists(String name) {
+        try {
+            Class.forName(name);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
         }
+    }
+
+    private static final class AsyncSchedulerHolder {
+        static final AsyncScheduler INSTANCE = new AsyncScheduler();
+    }
+
+    private static final class EntitySchedulerHolder {
+        static final EntityScheduler INSTANCE = new EntityScheduler();
+    }
+
+    private static final class GlobalRegionSchedulerHolder {
+        static final GlobalRegionScheduler INSTANCE = new GlobalRegionScheduler();
+    }
+
+    private static final class RegionSchedulerHolder {
+        static final RegionScheduler INSTANCE = new RegionScheduler();
+    }
+
+    private static final class MetricsHolder {
+        static final SchedulerMetrics INSTANCE = new SchedulerMetrics();
+    }
+
+    private static final class TaskRegistryHolder {
+        static final TaskRegistry INSTANCE = new TaskRegistry();
+    }
+
+    private static final class SubmissionLimiterHolder {
+        static final SubmissionLimiter INSTANCE = new SubmissionLimiter();
+    }
+
+    private static final class SlowTaskWatchdogHolder {
+        static final SlowTaskWatchdog INSTANCE = new SlowTaskWatchdog();
+    }
 
-        Bukkit.getServer().getPluginManager().registerEvent(regionizedServerInitEventClass, new Listener() {
-        }, EventPriority.HIGHEST, (listener, event) -> run.run(), plugin);
+    private static final class InitQueueHolder {
+        static final InitQueue INSTANCE = new InitQueue();
     }
-}
\ No newline at end of file
+}
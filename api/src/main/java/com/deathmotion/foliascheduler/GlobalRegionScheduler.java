@@ -34,12 +34,18 @@ import java.util.function.Consumer;
 
 /**
  * Represents a scheduler for executing global region tasks.
+ * <p>
+ * Tasks accepting a {@link Runnable} are handed to Bukkit as-is, while tasks accepting a {@link Consumer} are handed to Folia as-is.
+ * On Folia the consumer receives the platform's scheduled task, on Bukkit it receives {@code null}.
  */
 public final class GlobalRegionScheduler {
 
     private BukkitScheduler bukkitScheduler;
     private io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler globalRegionScheduler;
 
+    private final TaskCoalescer coalescer = new TaskCoalescer();
+    private final TaskShaper shaper = new TaskShaper();
+
     GlobalRegionScheduler() {
         if (FoliaScheduler.isFolia()) {
             globalRegionScheduler = Bukkit.getGlobalRegionScheduler();
@@ -55,12 +61,90 @@ public final class GlobalRegionScheduler {
      * @param run    The task to execute
      */
     public void execute(@NotNull Plugin plugin, @NotNull Runnable run) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.GLOBAL_REGION, run, () -> execute(plugin, run));
+            return;
+        }
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, run);
+
         if (!FoliaScheduler.isFolia()) {
-            bukkitScheduler.runTask(plugin, run);
+            bukkitScheduler.runTask(plugin, instrumented);
+            return;
+        }
+
+        globalRegionScheduler.execute(plugin, instrumented);
+    }
+
+    /**
+     * Runs the task right away if the current thread is the global region's thread, otherwise schedules it to be executed on the global region.
+     *
+     * @param plugin The plugin that owns the task
+     * @param run    The task to execute
+     */
+    public void executeOrRun(@NotNull Plugin plugin, @NotNull Runnable run) {
+        if (ThreadOwnership.ownsGlobal()) {
+            SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, run).run();
             return;
         }
 
-        globalRegionScheduler.execute(plugin, run);
+        execute(plugin, run);
+    }
+
+    /**
+     * Schedules a task to be executed on the global region, unless a task with the same key is already pending.
+     * The key is released right before the task runs, so submissions made while it runs are scheduled again,
+     * and once the task has been cancelled.
+     *
+     * @param plugin The plugin that owns the task
+     * @param key    The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param run    The task to execute
+     * @return true if the task was scheduled, false if a task with the same key is already pending
+     */
+    public boolean scheduleOnce(@NotNull Plugin plugin, @NotNull Object key, @NotNull Runnable run) {
+        TaskCoalescer.Claim claim = coalescer.claim(key);
+        if (claim == null) return false;
+
+        try {
+            claim.track(run(plugin, coalescer.wrap(key, claim, run)));
+        } catch (RuntimeException e) {
+            coalescer.release(key, claim);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the task on the global region once no task with the same key has been submitted for the quiet period.
+     * Only the task submitted last runs. Submissions made while a run is pending reuse its scheduled task.
+     * The quiet period is measured in wall-clock time at 50 milliseconds per tick, so it spans fewer ticks while the server lags.
+     *
+     * @param plugin     The plugin that owns the task
+     * @param key        The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param quietTicks The quiet period, in ticks. Any value less-than 1 is treated as 1.
+     * @param run        The task to execute
+     * @return true if a new run was scheduled, false if the task replaced the pending one
+     */
+    public boolean debounce(@NotNull Plugin plugin, @NotNull Object key, long quietTicks, @NotNull Runnable run) {
+        return shaper.debounce(key, quietTicks, run, (task, delay) -> runDelayed(plugin, task, delay));
+    }
+
+    /**
+     * Runs the task on the global region at most once per period for every key.
+     * With {@link ThrottleEdge#LEADING}, the first task of a period runs on the next tick and the rest are dropped.
+     * With {@link ThrottleEdge#TRAILING}, the task submitted last runs at the end of the period.
+     * A key should always be throttled with the same edge.
+     * The period is measured in wall-clock time at 50 milliseconds per tick, so it spans fewer ticks while the server lags.
+     *
+     * @param plugin      The plugin that owns the task
+     * @param key         The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param periodTicks The period, in ticks. Any value less-than 1 is treated as 1.
+     * @param edge        Which task of a period runs
+     * @param run         The task to execute
+     * @return true if a new run was scheduled, false if the task was dropped or replaced the pending one
+     */
+    public boolean throttle(@NotNull Plugin plugin, @NotNull Object key, long periodTicks, @NotNull ThrottleEdge edge, @NotNull Runnable run) {
+        return shaper.throttle(key, periodTicks, edge, run, (task, delay) -> runDelayed(plugin, task, delay));
     }
 
     /**
@@ -71,11 +155,34 @@ public final class GlobalRegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper run(@NotNull Plugin plugin, @NotNull Consumer<Object> task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> run(plugin, task));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, TaskAdapters.runnable(instrumented)), SchedulerType.GLOBAL_REGION);
+        }
+
+        return new TaskWrapper(globalRegionScheduler.run(plugin, TaskAdapters.consumer(instrumented)), SchedulerType.GLOBAL_REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the global region.
+     *
+     * @param plugin The plugin that owns the task
+     * @param task   The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper run(@NotNull Plugin plugin, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> run(plugin, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task);
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTask(plugin, () -> task.accept(null)));
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, instrumented), SchedulerType.GLOBAL_REGION);
         }
 
-        return new TaskWrapper(globalRegionScheduler.run(plugin, (o) -> task.accept(null)));
+        return new TaskWrapper(globalRegionScheduler.run(plugin, TaskAdapters.consumer(instrumented)), SchedulerType.GLOBAL_REGION);
     }
 
     /**
@@ -87,13 +194,39 @@ public final class GlobalRegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Consumer<Object> task, long delay) {
-        if (delay < 1) delay = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> runDelayed(plugin, task, delay));
+
+        long clampedDelay = Math.max(1, delay);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task, clampedDelay, 0);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, () -> task.accept(null), delay));
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, TaskAdapters.runnable(instrumented), clampedDelay), SchedulerType.GLOBAL_REGION);
         }
 
-        return new TaskWrapper(globalRegionScheduler.runDelayed(plugin, (o) -> task.accept(null), delay));
+        return new TaskWrapper(globalRegionScheduler.runDelayed(plugin, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.GLOBAL_REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the global region after the specified delay in ticks.
+     *
+     * @param plugin The plugin that owns the task
+     * @param task   The task to execute
+     * @param delay  The delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Runnable task, long delay) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> runDelayed(plugin, task, delay));
+
+        long clampedDelay = Math.max(1, delay);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task, clampedDelay, 0);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, instrumented, clampedDelay), SchedulerType.GLOBAL_REGION);
+        }
+
+        return new TaskWrapper(globalRegionScheduler.runDelayed(plugin, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.GLOBAL_REGION);
     }
 
     /**
@@ -106,27 +239,113 @@ public final class GlobalRegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Consumer<Object> task, long initialDelayTicks, long periodTicks) {
-        if (initialDelayTicks < 1) initialDelayTicks = 1;
-        if (periodTicks < 1) periodTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> runAtFixedRate(plugin, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task, clampedInitialDelay, clampedPeriod);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, TaskAdapters.runnable(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.GLOBAL_REGION);
+        }
+
+        return new TaskWrapper(globalRegionScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.GLOBAL_REGION);
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the global region after the initial delay with the specified period.
+     *
+     * @param plugin            The plugin that owns the task
+     * @param task              The task to execute
+     * @param initialDelayTicks The initial delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @param periodTicks       The period, in ticks. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, long initialDelayTicks, long periodTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.GLOBAL_REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.GLOBAL_REGION, task, () -> runAtFixedRate(plugin, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, task, clampedInitialDelay, clampedPeriod);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, () -> task.accept(null), initialDelayTicks, periodTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, instrumented, clampedInitialDelay, clampedPeriod), SchedulerType.GLOBAL_REGION);
         }
 
-        return new TaskWrapper(globalRegionScheduler.runAtFixedRate(plugin, (o) -> task.accept(null), initialDelayTicks, periodTicks));
+        return new TaskWrapper(globalRegionScheduler.runAtFixedRate(plugin, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.GLOBAL_REGION);
     }
 
     /**
-     * Attempts to cancel all tasks scheduled by the specified plugin.
+     * Schedules a task to be executed on the global region after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin The plugin that owns the task
+     * @param task   The task to execute
+     * @param delay  The delay, in ticks or in time, before the method is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Consumer<Object> task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a task to be executed on the global region after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin The plugin that owns the task
+     * @param task   The task to execute
+     * @param delay  The delay, in ticks or in time, before the method is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Runnable task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the global region after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the method is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Consumer<Object> task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the global region after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the method is invoked. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Runnable task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Attempts to cancel all tasks scheduled by the specified plugin on the global region.
+     * On Bukkit, while the {@link TaskRegistry} is enabled only the tasks it tracks are cancelled and the plugin's other tasks are left alone.
+     * Otherwise every Bukkit task of the plugin is cancelled.
      *
      * @param plugin Specified plugin.
      */
     public void cancel(@NotNull Plugin plugin) {
+        TaskRegistry registry = FoliaScheduler.getTaskRegistry();
         if (!FoliaScheduler.isFolia()) {
-            Bukkit.getScheduler().cancelTasks(plugin);
-            return;
+            if (!registry.isEnabled()) bukkitScheduler.cancelTasks(plugin);
+        } else {
+            globalRegionScheduler.cancelTasks(plugin);
         }
 
-        globalRegionScheduler.cancelTasks(plugin);
+        registry.cancelAll(plugin, SchedulerType.GLOBAL_REGION);
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time view of a fixed-bucket histogram of durations.
+ * Bucket {@code i} counts durations up to {@code getBucketUpperBoundsNanos()[i]},
+ * the last bucket counts every duration above the highest bound.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] upperBoundsNanos;
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    HistogramSnapshot(@NotNull long[] upperBoundsNanos, @NotNull long[] counts, long totalNanos, long maxNanos) {
+        this.upperBoundsNanos = upperBoundsNanos;
+        this.counts = counts;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+
+        long count = 0;
+        for (long bucket : counts) count += bucket;
+        this.count = count;
+    }
+
+    /**
+     * @return The amount of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The sum of all recorded durations, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return The mean of all recorded durations in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * @return The longest recorded duration, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket containing it.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The estimated duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) return 0;
+
+        long rank = (long) Math.ceil(count * (percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < upperBoundsNanos.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBoundsNanos[i], maxNanos);
+        }
+
+        return maxNanos;
+    }
+
+    /**
+     * @return A copy of the upper bounds of the buckets, in nanoseconds
+     */
+    public long[] getBucketUpperBoundsNanos() {
+        return upperBoundsNanos.clone();
+    }
+
+    /**
+     * @return A copy of the bucket counts, with one more entry than there are upper bounds
+     */
+    public long[] getBucketCounts() {
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{count=" + count
+                + ", mean=" + TimeUnit.NANOSECONDS.toMicros(getMeanNanos()) + "us"
+                + ", p99=" + TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(99)) + "us"
+                + ", max=" + TimeUnit.NANOSECONDS.toMicros(maxNanos) + "us}";
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a large job in slices on the thread which owns a region, an entity or the global region,
+ * spending at most a time budget per tick and resuming on the next tick until every item has been handled.
+ * <p>
+ * At least one item is handled per slice, so an item which takes longer than the budget still makes progress.
+ * An exception thrown by the action stops the job and completes it exceptionally.
+ *
+ * <pre>{@code
+ * IncrementalJob<Chunk> job = IncrementalJob.of(plugin, chunks, this::scan)
+ *         .budget(2, TimeUnit.MILLISECONDS)
+ *         .startOnRegion(location);
+ * }</pre>
+ *
+ * @param <T> The type of the items
+ */
+public final class IncrementalJob<T> {
+
+    private static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final Plugin plugin;
+    private final Iterator<? extends T> work;
+    private final Consumer<? super T> action;
+    private final long total;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private boolean started;
+    private volatile long processed;
+    private volatile @Nullable TaskWrapper task;
+
+    private IncrementalJob(@NotNull Plugin plugin, @NotNull Iterator<? extends T> work, @NotNull Consumer<? super T> action, long total) {
+        this.plugin = plugin;
+        this.work = work;
+        this.action = action;
+        this.total = total;
+    }
+
+    /**
+     * Creates a job handling every item of the collection, which must not be modified while the job runs.
+     *
+     * @param plugin The plugin that owns the job
+     * @param work   The items to handle
+     * @param action The action to run for every item
+     * @param <T>    The type of the items
+     * @return A job which has not been started yet
+     */
+    public static <T> IncrementalJob<T> of(@NotNull Plugin plugin, @NotNull Collection<? extends T> work, @NotNull Consumer<? super T> action) {
+        return new IncrementalJob<>(plugin, work.iterator(), action, work.size());
+    }
+
+    /**
+     * Creates a job handling every item the iterator returns. The total amount of items is unknown.
+     *
+     * @param plugin The plugin that owns the job
+     * @param work   The items to handle, only used on the thread running the job
+     * @param action The action to run for every item
+     * @param <T>    The type of the items
+     * @return A job which has not been started yet
+     */
+    public static <T> IncrementalJob<T> of(@NotNull Plugin plugin, @NotNull Iterator<? extends T> work, @NotNull Consumer<? super T> action) {
+        return new IncrementalJob<>(plugin, work, action, -1);
+    }
+
+    /**
+     * Sets the time the job may spend per tick, 2 milliseconds by default.
+     *
+     * @param budget   The budget
+     * @param timeUnit The time unit of the budget
+     * @return This job
+     */
+    public IncrementalJob<T> budget(long budget, @NotNull TimeUnit timeUnit) {
+        if (budget <= 0) throw new IllegalArgumentException("budget must be positive, was " + budget);
+        if (started) throw new IllegalStateException("The job has already been started");
+
+        budgetNanos = timeUnit.toNanos(budget);
+        return this;
+    }
+
+    /**
+     * Starts the job on the global region, beginning on the next tick.
+     *
+     * @return This job
+     */
+    public IncrementalJob<T> startOnGlobal() {
+        markStarted();
+        return started(FoliaScheduler.getGlobalRegionScheduler().runAtFixedRate(plugin, SubmissionLimiter.failOnDrop(this::runSlice, future), 1, 1));
+    }
+
+    /**
+     * Starts the job on the region which owns the location, beginning on the next tick.
+     *
+     * @param location The location at which the region executing should own
+     * @return This job
+     */
+    public IncrementalJob<T> startOnRegion(@NotNull Location location) {
+        markStarted();
+        return started(FoliaScheduler.getRegionScheduler().runAtFixedRate(plugin, location, SubmissionLimiter.failOnDrop(this::runSlice, future), 1, 1));
+    }
+
+    /**
+     * Starts the job on the region which owns the chunk, beginning on the next tick.
+     *
+     * @param world  The world of the region that owns the job
+     * @param chunkX The chunk X coordinate of the region that owns the job
+     * @param chunkZ The chunk Z coordinate of the region that owns the job
+     * @return This job
+     */
+    public IncrementalJob<T> startOnRegion(@NotNull World world, int chunkX, int chunkZ) {
+        markStarted();
+        return started(FoliaScheduler.getRegionScheduler().runAtFixedRate(plugin, world, chunkX, chunkZ, SubmissionLimiter.failOnDrop(this::runSlice, future), 1, 1));
+    }
+
+    /**
+     * Starts the job on the thread which owns the entity, beginning on the next tick.
+     * If the entity is retired before the job finishes, the job is cancelled after running the retired callback.
+     *
+     * @param entity  The entity the job runs on
+     * @param retired Retire callback to run if the entity is retired before the job finishes, may be null.
+     * @return This job
+     */
+    public IncrementalJob<T> startOnEntity(@NotNull Entity entity, @Nullable Runnable retired) {
+        markStarted();
+
+        Runnable onRetired = () -> {
+            if (retired != null) retired.run();
+            cancel();
+        };
+
+        TaskWrapper task = FoliaScheduler.getEntityScheduler().runAtFixedRate(entity, plugin, SubmissionLimiter.failOnDrop(this::runSlice, future), onRetired, 1, 1);
+        // The entity was already retired, so neither the task nor its retired callback will run
+        if (task == null) {
+            onRetired.run();
+            return this;
+        }
+        return started(task);
+    }
+
+    /**
+     * @return The amount of items handled so far, updated after every slice
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * @return The total amount of items, or -1 if the job was created from an iterator
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The fraction of items handled so far between 0 and 1, or -1 if the total is unknown and the job has not finished
+     */
+    public double getProgress() {
+        if (isDone()) return 1;
+        if (total < 0) return -1;
+        return total == 0 ? 1 : (double) processed / total;
+    }
+
+    /**
+     * @return Whether the job has finished, failed or been cancelled
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Cancels the job. Items which have already been handled are not rolled back.
+     *
+     * @return true if the job had not finished yet
+     */
+    public boolean cancel() {
+        boolean cancelled = future.cancel(false);
+        stop();
+        return cancelled;
+    }
+
+    /**
+     * @return A future completing once every item has been handled
+     */
+    public CompletableFuture<Void> toCompletableFuture() {
+        return future;
+    }
+
+    private synchronized void markStarted() {
+        if (started) throw new IllegalStateException("The job has already been started");
+        started = true;
+    }
+
+    private IncrementalJob<T> started(TaskWrapper task) {
+        this.task = task;
+        // The job may have finished or been cancelled before its task was known
+        if (future.isDone()) stop();
+        return this;
+    }
+
+    private void runSlice() {
+        if (future.isDone()) {
+            stop();
+            return;
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        long handled = processed;
+
+        try {
+            do {
+                if (!work.hasNext()) {
+                    processed = handled;
+                    future.complete(null);
+                    stop();
+                    return;
+                }
+
+                action.accept(work.next());
+                handled++;
+            } while (System.nanoTime() - deadline < 0 && !future.isDone());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            stop();
+        }
+
+        processed = handled;
+    }
+
+    private void stop() {
+        TaskWrapper current = task;
+        if (current != null && !current.isCancelled()) current.cancel();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Queues the tasks run through {@link FoliaScheduler#runTaskOnInit} until the server has finished initializing.
+ * <p>
+ * Every plugin gets a single init hook, registered with its first task, which runs the plugin's queued tasks in order.
+ * Once the server has initialized, new tasks run right away on the global region, or are handed to it,
+ * behind the plugin's queued tasks if its hook has not drained them yet.
+ * <p>
+ * Every task is timed, whether or not {@link SchedulerMetrics} are enabled, and a task running longer than a tick is logged,
+ * as init tasks delay the first tick of the server.
+ */
+final class InitQueue {
+
+    private static final Listener LISTENER = new Listener() {
+    };
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(SchedulerDuration.MILLIS_PER_TICK);
+
+    private final Map<Plugin, Queue<Runnable>> pending = new ConcurrentHashMap<>();
+    // The server initializes once for every plugin, so the first hook to run marks it for all of them
+    private volatile boolean initialized;
+
+    InitQueue() {
+    }
+
+    void submit(@NotNull Plugin plugin, @NotNull Runnable run) {
+        Runnable task = SchedulerMetrics.instrument(plugin, SchedulerType.GLOBAL_REGION, run);
+        if (initialized) {
+            Queue<Runnable> queue = pending.get(plugin);
+            if (queue == null) {
+                runOnGlobal(plugin, () -> runSafely(plugin, task));
+                return;
+            }
+
+            // The plugin's hook has not drained its queue yet, so the task runs behind the queued ones
+            queue.add(task);
+            runOnGlobal(plugin, () -> drain(plugin, queue));
+            return;
+        }
+
+        boolean[] created = new boolean[1];
+        Queue<Runnable> queue = pending.computeIfAbsent(plugin, p -> {
+            created[0] = true;
+            return new ConcurrentLinkedQueue<>();
+        });
+        queue.add(task);
+
+        if (created[0]) {
+            registerHook(plugin);
+        } else if (initialized) {
+            // The hook may have drained the queue before the task was added
+            runOnGlobal(plugin, () -> drain(plugin, queue));
+        }
+    }
+
+    private void registerHook(Plugin plugin) {
+        if (!FoliaScheduler.isFolia()) {
+            Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> onInit(plugin));
+            return;
+        }
+
+        Bukkit.getPluginManager().registerEvent(InitEventHolder.EVENT_CLASS, LISTENER, EventPriority.HIGHEST, (listener, event) -> onInit(plugin), plugin);
+        // The global region only starts ticking after the init event, so this only runs first if the event already fired
+        Bukkit.getGlobalRegionScheduler().execute(plugin, () -> onInit(plugin));
+    }
+
+    private void onInit(Plugin plugin) {
+        initialized = true;
+
+        Queue<Runnable> queue = pending.remove(plugin);
+        if (queue != null) drain(plugin, queue);
+    }
+
+    private static void drain(Plugin plugin, Queue<Runnable> queue) {
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            runSafely(plugin, task);
+        }
+    }
+
+    private static void runOnGlobal(Plugin plugin, Runnable task) {
+        if (ThreadOwnership.ownsGlobal()) {
+            task.run();
+        } else if (FoliaScheduler.isFolia()) {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private static void runSafely(Plugin plugin, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } catch (Throwable throwable) {
+            plugin.getLogger().log(Level.WARNING, "An init task generated an exception", throwable);
+        }
+
+        long tookNanos = System.nanoTime() - start;
+        if (tookNanos > SLOW_NANOS) {
+            plugin.getLogger().log(Level.WARNING, "An init task took " + TimeUnit.NANOSECONDS.toMillis(tookNanos) + "ms to run");
+        }
+    }
+
+    /**
+     * The server init event is only part of the Folia API, so its class is looked up once, the first time a hook is registered.
+     * Thanks for this code ViaVersion
+     */
+    private static final class InitEventHolder {
+        static final Class<? extends Event> EVENT_CLASS = lookup();
+
+        @SuppressWarnings("unchecked")
+        private static Class<? extends Event> lookup() {
+            try {
+                return (Class<? extends Event>) Class.forName("io.papermc.paper.threadedregions.RegionizedServerInitEvent");
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Folia is missing the RegionizedServerInitEvent", e);
+            }
+        }
+    }
+}
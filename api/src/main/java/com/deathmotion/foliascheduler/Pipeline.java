@@ -0,0 +1,247 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A reusable chain of stages, each declared with the thread it runs on: asynchronously, on a region, on an entity or on the global region.
+ * <p>
+ * Consecutive stages on the same context are merged when the pipeline is built, so a value only hops between threads when the context changes.
+ * Each run is executed as a {@link SchedulerFuture}, which also skips the hop when the current thread already owns the next context.
+ * An exception thrown by a stage skips all following stages and is handed to the error handler, if any.
+ * <p>
+ * Pipelines are immutable; every method returns a new pipeline, so a pipeline can be built once and run many times.
+ *
+ * <pre>{@code
+ * Pipeline<UUID, PlayerData> load = Pipeline.<UUID>of(plugin)
+ *         .thenAsync(database::load)
+ *         .thenOnEntity(player, data -> data.apply(player))
+ *         .thenAsync(database::save)
+ *         .thenOnGlobal(data -> data.broadcast())
+ *         .onError(t -> plugin.getLogger().log(Level.WARNING, "Failed to load player data", t));
+ *
+ * load.run(player.getUniqueId());
+ * }</pre>
+ *
+ * @param <I> The type of the input of the pipeline
+ * @param <O> The type of the output of the pipeline
+ */
+public final class Pipeline<I, O> {
+
+    private final Plugin plugin;
+    private final List<Segment> segments;
+    private final @Nullable Consumer<? super Throwable> errorHandler;
+
+    private Pipeline(@NotNull Plugin plugin, @NotNull List<Segment> segments, @Nullable Consumer<? super Throwable> errorHandler) {
+        this.plugin = plugin;
+        this.segments = segments;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Starts an empty pipeline, which outputs its input unchanged.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @param <T>    The type of the input of the pipeline
+     * @return An empty pipeline
+     */
+    public static <T> Pipeline<T, T> of(@NotNull Plugin plugin) {
+        return new Pipeline<>(plugin, Collections.emptyList(), null);
+    }
+
+    /**
+     * Adds a stage which runs asynchronously.
+     *
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A new pipeline ending with the stage
+     */
+    public <R> Pipeline<I, R> thenAsync(@NotNull Function<? super O, ? extends R> function) {
+        return then(new Context(SchedulerType.ASYNC, null), function);
+    }
+
+    /**
+     * Adds a stage which runs on the region which owns the location.
+     *
+     * @param location The location at which the region executing should own
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A new pipeline ending with the stage
+     */
+    public <R> Pipeline<I, R> thenOnRegion(@NotNull Location location, @NotNull Function<? super O, ? extends R> function) {
+        return then(new Context(SchedulerType.REGION, location.clone()), function);
+    }
+
+    /**
+     * Adds a stage which runs on the region which owns the entity.
+     * If the entity is retired before the stage could run, including when it already is once the stage is reached,
+     * the run fails with a {@link java.util.concurrent.CancellationException}.
+     *
+     * @param entity   The entity whose region should apply the function
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A new pipeline ending with the stage
+     */
+    public <R> Pipeline<I, R> thenOnEntity(@NotNull Entity entity, @NotNull Function<? super O, ? extends R> function) {
+        return then(new Context(SchedulerType.ENTITY, entity), function);
+    }
+
+    /**
+     * Adds a stage which runs on the global region.
+     *
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A new pipeline ending with the stage
+     */
+    public <R> Pipeline<I, R> thenOnGlobal(@NotNull Function<? super O, ? extends R> function) {
+        return then(new Context(SchedulerType.GLOBAL_REGION, null), function);
+    }
+
+    /**
+     * Sets the handler for exceptions thrown by any stage, replacing the previous handler.
+     * The handler runs once per failed run, on the thread of the stage which failed.
+     *
+     * @param handler The error handler
+     * @return A new pipeline with the error handler
+     */
+    public Pipeline<I, O> onError(@NotNull Consumer<? super Throwable> handler) {
+        return new Pipeline<>(plugin, segments, handler);
+    }
+
+    /**
+     * @return The amount of thread hops a run needs at most, one per change of context
+     */
+    public int getHops() {
+        return segments.size();
+    }
+
+    /**
+     * Runs the pipeline, starting on the current thread.
+     *
+     * @param input The input of the pipeline
+     * @return A future completing with the output of the pipeline
+     */
+    @SuppressWarnings("unchecked")
+    public SchedulerFuture<O> run(@Nullable I input) {
+        SchedulerFuture<Object> future = SchedulerFuture.completed(plugin, input);
+        for (Segment segment : segments) {
+            future = segment.hop(future);
+        }
+
+        if (errorHandler != null) {
+            Consumer<? super Throwable> handler = errorHandler;
+            future.toCompletableFuture().whenComplete((value, throwable) -> {
+                if (throwable == null) return;
+                handler.accept(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            });
+        }
+
+        return (SchedulerFuture<O>) future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> Pipeline<I, R> then(Context context, Function<? super O, ? extends R> function) {
+        Function<Object, Object> stage = (Function<Object, Object>) function;
+        List<Segment> next = new ArrayList<>(segments);
+
+        int last = next.size() - 1;
+        if (last >= 0 && next.get(last).context.equals(context)) {
+            Segment merged = next.get(last);
+            next.set(last, new Segment(context, merged.function.andThen(stage)));
+        } else {
+            next.add(new Segment(context, stage));
+        }
+
+        return new Pipeline<>(plugin, Collections.unmodifiableList(next), errorHandler);
+    }
+
+    /**
+     * The thread a stage runs on. Locations are compared by value and entities by identity.
+     */
+    private static final class Context {
+
+        private final SchedulerType type;
+        private final @Nullable Object target;
+
+        Context(SchedulerType type, @Nullable Object target) {
+            this.type = type;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Context)) return false;
+
+            Context other = (Context) o;
+            if (type != other.type) return false;
+            return type == SchedulerType.ENTITY ? target == other.target : target == null ? other.target == null : target.equals(other.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return type.hashCode();
+        }
+    }
+
+    /**
+     * Consecutive stages on the same context, composed into a single function.
+     */
+    private static final class Segment {
+
+        private final Context context;
+        private final Function<Object, Object> function;
+
+        Segment(Context context, Function<Object, Object> function) {
+            this.context = context;
+            this.function = function;
+        }
+
+        SchedulerFuture<Object> hop(SchedulerFuture<Object> future) {
+            switch (context.type) {
+                case ASYNC:
+                    return future.thenAsync(function);
+                case REGION:
+                    return future.thenOnRegion((Location) context.target, function);
+                case ENTITY:
+                    return future.thenOnEntity((Entity) context.target, function);
+                default:
+                    return future.thenOnGlobal(function);
+            }
+        }
+    }
+}
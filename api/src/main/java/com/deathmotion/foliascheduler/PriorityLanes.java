@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs asynchronous tasks on the platform's pool in order of {@link TaskPriority}.
+ * <p>
+ * At most {@code parallelism} workers run on the platform's pool at once, and every worker keeps taking the next task
+ * until the lanes are empty. The next task is the head of the highest lane, unless the head of a lower lane
+ * has waited longer than the aging period for every lane it is below, so lower lanes are never starved.
+ */
+final class PriorityLanes {
+
+    private final ExecutorScheduler.Dispatcher platform;
+    private final int parallelism;
+    private final long agingNanos;
+    private final Queue<Entry>[] lanes;
+    private final AtomicInteger workers = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    PriorityLanes(@NotNull ExecutorScheduler.Dispatcher platform, int parallelism, long agingNanos) {
+        this.platform = platform;
+        this.parallelism = parallelism;
+        this.agingNanos = agingNanos;
+        this.lanes = (Queue<Entry>[]) new Queue<?>[TaskPriority.values().length];
+        for (int i = 0; i < lanes.length; i++) lanes[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * @return A dispatcher which queues tasks in the specified lane
+     */
+    ExecutorScheduler.Dispatcher lane(@NotNull TaskPriority priority) {
+        Queue<Entry> lane = lanes[priority.ordinal()];
+        return (plugin, task) -> {
+            lane.add(new Entry(task, System.nanoTime()));
+            startWorker(plugin);
+        };
+    }
+
+    int getBacklog(@NotNull TaskPriority priority) {
+        return lanes[priority.ordinal()].size();
+    }
+
+    private void startWorker(Plugin plugin) {
+        if (!acquireWorker()) return;
+
+        try {
+            platform.dispatch(plugin, this::work);
+        } catch (RuntimeException e) {
+            workers.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean acquireWorker() {
+        int current;
+        do {
+            current = workers.get();
+            if (current >= parallelism) return false;
+        } while (!workers.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private void work() {
+        do {
+            Entry entry;
+            while ((entry = next()) != null) {
+                entry.task.run();
+            }
+
+            workers.decrementAndGet();
+            // A task queued while this worker was stopping may not have found a free worker
+        } while (!isEmpty() && acquireWorker());
+    }
+
+    private Entry next() {
+        while (true) {
+            long now = System.nanoTime();
+            int best = -1;
+            long bestScore = Long.MAX_VALUE;
+
+            for (int i = 0; i < lanes.length; i++) {
+                Entry head = lanes[i].peek();
+                if (head == null) continue;
+
+                // Every aging period a task waits lifts it one lane, ties go to the higher lane
+                long score = i * agingNanos - (now - head.queuedNanos);
+                if (score < bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+
+            if (best < 0) return null;
+
+            Entry entry = lanes[best].poll();
+            if (entry != null) return entry;
+        }
+    }
+
+    private boolean isEmpty() {
+        for (Queue<Entry> lane : lanes) {
+            if (!lane.isEmpty()) return false;
+        }
+
+        return true;
+    }
+
+    private static final class Entry {
+        private final Runnable task;
+        private final long queuedNanos;
+
+        private Entry(Runnable task, long queuedNanos) {
+            this.task = task;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Collects region tasks and submits them as one platform task per owning chunk.
+ * <p>
+ * On Folia, every chunk is executed once on the region that owns it, running its tasks in insertion order.
+ * On Bukkit every task lands on the main thread anyway, so the whole batch is submitted as a single task.
+ * <p>
+ * A batch is not thread-safe and is cleared once it has been submitted, so it may be reused.
+ */
+public final class RegionBatch {
+
+    private final Plugin plugin;
+    private final RegionScheduler regionScheduler;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Map<World, Map<Long, List<Runnable>>> chunks = new LinkedHashMap<>();
+    private int size;
+
+    RegionBatch(@NotNull Plugin plugin, @NotNull RegionScheduler regionScheduler) {
+        this.plugin = plugin;
+        this.regionScheduler = regionScheduler;
+    }
+
+    /**
+     * Adds a task to be executed on the region which owns the chunk.
+     *
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param run    The task to execute
+     * @return This batch
+     */
+    public RegionBatch add(@NotNull World world, int chunkX, int chunkZ, @NotNull Runnable run) {
+        size++;
+
+        if (!FoliaScheduler.isFolia()) {
+            tasks.add(run);
+            return this;
+        }
+
+        chunks.computeIfAbsent(world, w -> new HashMap<>())
+                .computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ArrayList<>())
+                .add(run);
+        return this;
+    }
+
+    /**
+     * Adds a task to be executed on the region which owns the location.
+     *
+     * @param location The location at which the region executing should own
+     * @param run      The task to execute
+     * @return This batch
+     */
+    public RegionBatch add(@NotNull Location location, @NotNull Runnable run) {
+        return add(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4, run);
+    }
+
+    /**
+     * @return The amount of tasks added since the batch was last submitted
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Submits all added tasks and clears the batch.
+     */
+    public void submit() {
+        if (size == 0) return;
+
+        if (!FoliaScheduler.isFolia()) {
+            Runnable[] batch = tasks.toArray(new Runnable[0]);
+            Runnable task = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, () -> runAll(batch));
+            Runnable submission = () -> Bukkit.getScheduler().runTask(plugin, task);
+
+            // On Folia every chunk takes a permit through the region scheduler, here the whole batch takes one
+            if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) {
+                SubmissionLimiter.execute(plugin, SchedulerType.REGION, task, submission);
+            } else {
+                submission.run();
+            }
+        } else {
+            for (Map.Entry<World, Map<Long, List<Runnable>>> world : chunks.entrySet()) {
+                for (Map.Entry<Long, List<Runnable>> chunk : world.getValue().entrySet()) {
+                    long key = chunk.getKey();
+                    Runnable[] batch = chunk.getValue().toArray(new Runnable[0]);
+                    regionScheduler.execute(plugin, world.getKey(), (int) key, (int) (key >> 32), () -> runAll(batch));
+                }
+            }
+        }
+
+        tasks.clear();
+        chunks.clear();
+        size = 0;
+    }
+
+    private void runAll(Runnable[] batch) {
+        for (Runnable task : batch) {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                plugin.getLogger().log(Level.WARNING, "A batched region task generated an exception", throwable);
+            }
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+}
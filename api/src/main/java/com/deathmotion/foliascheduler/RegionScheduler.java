@@ -32,16 +32,30 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 /**
  * Represents a scheduler for executing region tasks
+ * <p>
+ * Tasks accepting a {@link Runnable} are handed to Bukkit as-is, while tasks accepting a {@link Consumer} are handed to Folia as-is.
+ * On Folia the consumer receives the platform's scheduled task, on Bukkit it receives {@code null}.
  */
 public final class RegionScheduler {
+    /**
+     * Folia's default region grid exponent; regions are made up of whole sections of 16 by 16 chunks.
+     * The exponent can be configured lower, so code grouping chunks by it still checks which region owns each chunk.
+     */
+    static final int SECTION_CHUNK_SHIFT = 4;
 
     private BukkitScheduler bukkitScheduler;
     private io.papermc.paper.threadedregions.scheduler.RegionScheduler regionScheduler;
 
+    private final TaskCoalescer coalescer = new TaskCoalescer();
+    private final TaskShaper shaper = new TaskShaper();
+
     RegionScheduler() {
         if (FoliaScheduler.isFolia()) {
             regionScheduler = Bukkit.getRegionScheduler();
@@ -60,12 +74,19 @@ public final class RegionScheduler {
      * @param run    The task to execute
      */
     public void execute(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable run) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.REGION, run, () -> execute(plugin, world, chunkX, chunkZ, run));
+            return;
+        }
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, run);
+
         if (!FoliaScheduler.isFolia()) {
-            bukkitScheduler.runTask(plugin, run);
+            bukkitScheduler.runTask(plugin, instrumented);
             return;
         }
 
-        regionScheduler.execute(plugin, world, chunkX, chunkZ, run);
+        regionScheduler.execute(plugin, world, chunkX, chunkZ, instrumented);
     }
 
     /**
@@ -76,12 +97,234 @@ public final class RegionScheduler {
      * @param run      The task to execute
      */
     public void execute(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable run) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) {
+            SubmissionLimiter.execute(plugin, SchedulerType.REGION, run, () -> execute(plugin, location, run));
+            return;
+        }
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, run);
+
         if (!FoliaScheduler.isFolia()) {
-            Bukkit.getScheduler().runTask(plugin, run);
+            bukkitScheduler.runTask(plugin, instrumented);
+            return;
+        }
+
+        regionScheduler.execute(plugin, location, instrumented);
+    }
+
+    /**
+     * Runs the task right away if the current thread owns the location, otherwise schedules it to be executed on the region which owns the location.
+     *
+     * @param plugin The plugin that owns the task
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param run    The task to execute
+     */
+    public void executeOrRun(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable run) {
+        if (ThreadOwnership.owns(world, chunkX, chunkZ)) {
+            SchedulerMetrics.instrument(plugin, SchedulerType.REGION, run).run();
+            return;
+        }
+
+        execute(plugin, world, chunkX, chunkZ, run);
+    }
+
+    /**
+     * Runs the task right away if the current thread owns the location, otherwise schedules it to be executed on the region which owns the location.
+     *
+     * @param plugin   The plugin that owns the task
+     * @param location The location at which the region executing should own
+     * @param run      The task to execute
+     */
+    public void executeOrRun(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable run) {
+        if (ThreadOwnership.owns(location)) {
+            SchedulerMetrics.instrument(plugin, SchedulerType.REGION, run).run();
             return;
         }
 
-        regionScheduler.execute(plugin, location, run);
+        execute(plugin, location, run);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location, unless a task with the same key is already pending.
+     * The key is released right before the task runs, so submissions made while it runs are scheduled again,
+     * and once the task has been cancelled.
+     *
+     * @param plugin The plugin that owns the task
+     * @param key    The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param run    The task to execute
+     * @return true if the task was scheduled, false if a task with the same key is already pending
+     */
+    public boolean scheduleOnce(@NotNull Plugin plugin, @NotNull Object key, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable run) {
+        TaskCoalescer.Claim claim = coalescer.claim(key);
+        if (claim == null) return false;
+
+        try {
+            claim.track(run(plugin, world, chunkX, chunkZ, coalescer.wrap(key, claim, run)));
+        } catch (RuntimeException e) {
+            coalescer.release(key, claim);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location, unless a task with the same key is already pending.
+     * The key is released right before the task runs, so submissions made while it runs are scheduled again,
+     * and once the task has been cancelled.
+     *
+     * @param plugin   The plugin that owns the task
+     * @param key      The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param location The location at which the region executing should own
+     * @param run      The task to execute
+     * @return true if the task was scheduled, false if a task with the same key is already pending
+     */
+    public boolean scheduleOnce(@NotNull Plugin plugin, @NotNull Object key, @NotNull Location location, @NotNull Runnable run) {
+        TaskCoalescer.Claim claim = coalescer.claim(key);
+        if (claim == null) return false;
+
+        try {
+            claim.track(run(plugin, location, coalescer.wrap(key, claim, run)));
+        } catch (RuntimeException e) {
+            coalescer.release(key, claim);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the task on the region which owns the location once no task with the same key has been submitted for the quiet period.
+     * Only the task submitted last runs, on the region of the location given when its run was scheduled.
+     * Submissions made while a run is pending reuse its scheduled task.
+     * The quiet period is measured in wall-clock time at 50 milliseconds per tick, so it spans fewer ticks while the server lags.
+     *
+     * @param plugin     The plugin that owns the task
+     * @param key        The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param location   The location at which the region executing should own
+     * @param quietTicks The quiet period, in ticks. Any value less-than 1 is treated as 1.
+     * @param run        The task to execute
+     * @return true if a new run was scheduled, false if the task replaced the pending one
+     */
+    public boolean debounce(@NotNull Plugin plugin, @NotNull Object key, @NotNull Location location, long quietTicks, @NotNull Runnable run) {
+        return shaper.debounce(key, quietTicks, run, (task, delay) -> runDelayed(plugin, location, task, delay));
+    }
+
+    /**
+     * Runs the task on the region which owns the location at most once per period for every key.
+     * With {@link ThrottleEdge#LEADING}, the first task of a period runs on the next tick and the rest are dropped.
+     * With {@link ThrottleEdge#TRAILING}, the task submitted last runs at the end of the period,
+     * on the region of the location given when the period started.
+     * A key should always be throttled with the same edge.
+     * The period is measured in wall-clock time at 50 milliseconds per tick, so it spans fewer ticks while the server lags.
+     *
+     * @param plugin      The plugin that owns the task
+     * @param key         The key identifying the task, compared using {@link Object#equals(Object)}
+     * @param location    The location at which the region executing should own
+     * @param periodTicks The period, in ticks. Any value less-than 1 is treated as 1.
+     * @param edge        Which task of a period runs
+     * @param run         The task to execute
+     * @return true if a new run was scheduled, false if the task was dropped or replaced the pending one
+     */
+    public boolean throttle(@NotNull Plugin plugin, @NotNull Object key, @NotNull Location location, long periodTicks, @NotNull ThrottleEdge edge, @NotNull Runnable run) {
+        return shaper.throttle(key, periodTicks, edge, run, (task, delay) -> runDelayed(plugin, location, task, delay));
+    }
+
+    /**
+     * Creates a batch which submits one task per owning chunk instead of one task per entry.
+     * On Bukkit, the whole batch is submitted as a single task.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @return A new, empty {@link RegionBatch}
+     */
+    public RegionBatch newBatch(@NotNull Plugin plugin) {
+        return new RegionBatch(plugin, this);
+    }
+
+    /**
+     * Runs the action for every chunk in the area, both corners included. The chunks are not loaded by the scheduler.
+     * <p>
+     * On Folia the area is split into the region sections it covers and every section is handled by a single task on the region which owns it,
+     * so sections owned by different regions are handled in parallel.
+     * When the server is configured with smaller sections, a chunk not owned by the region handling its group is handed to its own region.
+     * On Bukkit the chunks are handled one after another on the main thread, spending at most 2 milliseconds per tick, see {@link IncrementalJob}.
+     * <p>
+     * An exception thrown by the action completes the future exceptionally and skips the sections which have not run yet.
+     *
+     * @param plugin    The plugin that owns the tasks
+     * @param world     The world of the area
+     * @param minChunkX The chunk X coordinate of the first corner
+     * @param minChunkZ The chunk Z coordinate of the first corner
+     * @param maxChunkX The chunk X coordinate of the opposite corner
+     * @param maxChunkZ The chunk Z coordinate of the opposite corner
+     * @param action    The action to run for every chunk, on the thread which owns the chunk
+     * @return A future completing once the action has run for every chunk
+     */
+    public CompletableFuture<Void> forEachChunk(@NotNull Plugin plugin, @NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull ChunkAction action) {
+        int fromX = Math.min(minChunkX, maxChunkX);
+        int fromZ = Math.min(minChunkZ, maxChunkZ);
+        int toX = Math.max(minChunkX, maxChunkX);
+        int toZ = Math.max(minChunkZ, maxChunkZ);
+
+        if (!FoliaScheduler.isFolia()) {
+            long width = (long) toX - fromX + 1;
+            long chunks = width * ((long) toZ - fromZ + 1);
+            return IncrementalJob.of(plugin, LongStream.range(0, chunks).iterator(), index -> {
+                action.accept((int) (fromX + index % width), (int) (fromZ + index / width));
+            }).startOnGlobal().toCompletableFuture();
+        }
+
+        int fromSectionX = fromX >> SECTION_CHUNK_SHIFT;
+        int fromSectionZ = fromZ >> SECTION_CHUNK_SHIFT;
+        int toSectionX = toX >> SECTION_CHUNK_SHIFT;
+        int toSectionZ = toZ >> SECTION_CHUNK_SHIFT;
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        AtomicLong remaining = new AtomicLong(((long) toSectionX - fromSectionX + 1) * ((long) toSectionZ - fromSectionZ + 1));
+
+        for (int sectionX = fromSectionX; sectionX <= toSectionX; sectionX++) {
+            for (int sectionZ = fromSectionZ; sectionZ <= toSectionZ; sectionZ++) {
+                int sectionFromX = Math.max(fromX, sectionX << SECTION_CHUNK_SHIFT);
+                int sectionFromZ = Math.max(fromZ, sectionZ << SECTION_CHUNK_SHIFT);
+                int sectionToX = Math.min(toX, ((sectionX + 1) << SECTION_CHUNK_SHIFT) - 1);
+                int sectionToZ = Math.min(toZ, ((sectionZ + 1) << SECTION_CHUNK_SHIFT) - 1);
+
+                execute(plugin, world, sectionFromX, sectionFromZ, chunkTask(plugin, world, sectionFromX, sectionFromZ, sectionToX, sectionToZ, action, future, remaining));
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Runs the action for every chunk of the area which the current region owns, handing every other chunk to its own region.
+     */
+    private Runnable chunkTask(Plugin plugin, World world, int fromX, int fromZ, int toX, int toZ, ChunkAction action, CompletableFuture<Void> future, AtomicLong remaining) {
+        return SubmissionLimiter.failOnDrop(() -> {
+            if (future.isDone()) return;
+
+            try {
+                for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                    for (int chunkZ = fromZ; chunkZ <= toZ; chunkZ++) {
+                        if (ThreadOwnership.owns(world, chunkX, chunkZ)) {
+                            action.accept(chunkX, chunkZ);
+                            continue;
+                        }
+
+                        remaining.incrementAndGet();
+                        execute(plugin, world, chunkX, chunkZ, chunkTask(plugin, world, chunkX, chunkZ, chunkX, chunkZ, action, future, remaining));
+                    }
+                }
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+
+            if (remaining.decrementAndGet() == 0) future.complete(null);
+        }, future);
     }
 
     /**
@@ -95,11 +338,37 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper run(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Consumer<Object> task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> run(plugin, world, chunkX, chunkZ, task));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, TaskAdapters.runnable(instrumented)), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.run(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented)), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location on the next tick.
+     *
+     * @param plugin The plugin that owns the task
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param task   The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper run(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> run(plugin, world, chunkX, chunkZ, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task);
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTask(plugin, () -> task.accept(null)));
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, instrumented), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.run(plugin, world, chunkX, chunkZ, (o) -> task.accept(null)));
+        return new TaskWrapper(regionScheduler.run(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented)), SchedulerType.REGION);
     }
 
     /**
@@ -111,11 +380,35 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper run(@NotNull Plugin plugin, @NotNull Location location, @NotNull Consumer<Object> task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> run(plugin, location, task));
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, TaskAdapters.runnable(instrumented)), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.run(plugin, location, TaskAdapters.consumer(instrumented)), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location on the next tick.
+     *
+     * @param plugin   The plugin that owns the task
+     * @param location The location at which the region executing should own
+     * @param task     The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper run(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable task) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> run(plugin, location, task));
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task);
+
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTask(plugin, () -> task.accept(null)));
+            return new TaskWrapper(bukkitScheduler.runTask(plugin, instrumented), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.run(plugin, location, (o) -> task.accept(null)));
+        return new TaskWrapper(regionScheduler.run(plugin, location, TaskAdapters.consumer(instrumented)), SchedulerType.REGION);
     }
 
     /**
@@ -130,13 +423,42 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Consumer<Object> task, long delayTicks) {
-        if (delayTicks < 1) delayTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runDelayed(plugin, world, chunkX, chunkZ, task, delayTicks));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedDelay, 0);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, TaskAdapters.runnable(instrumented), clampedDelay), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.runDelayed(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location after the specified delay in ticks.
+     *
+     * @param plugin     The plugin that owns the task
+     * @param world      The world of the region that owns the task
+     * @param chunkX     The chunk X coordinate of the region that owns the task
+     * @param chunkZ     The chunk Z coordinate of the region that owns the task
+     * @param task       The task to execute
+     * @param delayTicks The delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task, long delayTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runDelayed(plugin, world, chunkX, chunkZ, task, delayTicks));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedDelay, 0);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTaskLater(plugin, () -> task.accept(null), delayTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, instrumented, clampedDelay), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.runDelayed(plugin, world, chunkX, chunkZ, (o) -> task.accept(null), delayTicks));
+        return new TaskWrapper(regionScheduler.runDelayed(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.REGION);
     }
 
     /**
@@ -149,13 +471,40 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Location location, @NotNull Consumer<Object> task, long delayTicks) {
-        if (delayTicks < 1) delayTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runDelayed(plugin, location, task, delayTicks));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedDelay, 0);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, TaskAdapters.runnable(instrumented), clampedDelay), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.runDelayed(plugin, location, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location after the specified delay in ticks.
+     *
+     * @param plugin     The plugin that owns the task
+     * @param location   The location at which the region executing should own
+     * @param task       The task to execute
+     * @param delayTicks The delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable task, long delayTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runDelayed(plugin, location, task, delayTicks));
+
+        long clampedDelay = Math.max(1, delayTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedDelay, 0);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTaskLater(plugin, () -> task.accept(null), delayTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskLater(plugin, instrumented, clampedDelay), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.runDelayed(plugin, location, (o) -> task.accept(null), delayTicks));
+        return new TaskWrapper(regionScheduler.runDelayed(plugin, location, TaskAdapters.consumer(instrumented), clampedDelay), SchedulerType.REGION);
     }
 
     /**
@@ -171,14 +520,45 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Consumer<Object> task, long initialDelayTicks, long periodTicks) {
-        if (initialDelayTicks < 1) initialDelayTicks = 1;
-        if (periodTicks < 1) periodTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runAtFixedRate(plugin, world, chunkX, chunkZ, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedInitialDelay, clampedPeriod);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, TaskAdapters.runnable(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the location after the initial delay with the specified period.
+     *
+     * @param plugin            The plugin that owns the task
+     * @param world             The world of the region that owns the task
+     * @param chunkX            The chunk X coordinate of the region that owns the task
+     * @param chunkZ            The chunk Z coordinate of the region that owns the task
+     * @param task              The task to execute
+     * @param initialDelayTicks The initial delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @param periodTicks       The period, in ticks. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task, long initialDelayTicks, long periodTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runAtFixedRate(plugin, world, chunkX, chunkZ, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedInitialDelay, clampedPeriod);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTaskTimer(plugin, () -> task.accept(null), initialDelayTicks, periodTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, instrumented, clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, world, chunkX, chunkZ, (o) -> task.accept(null), initialDelayTicks, periodTicks));
+        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, world, chunkX, chunkZ, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
     }
 
     /**
@@ -192,13 +572,189 @@ public final class RegionScheduler {
      * @return {@link TaskWrapper} instance representing a wrapped task
      */
     public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Location location, @NotNull Consumer<Object> task, long initialDelayTicks, long periodTicks) {
-        if (initialDelayTicks < 1) initialDelayTicks = 1;
-        if (periodTicks < 1) periodTicks = 1;
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runAtFixedRate(plugin, location, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Consumer<Object> instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedInitialDelay, clampedPeriod);
+
+        if (!FoliaScheduler.isFolia()) {
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, TaskAdapters.runnable(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
+        }
+
+        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, location, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the location after the initial delay with the specified period.
+     *
+     * @param plugin            The plugin that owns the task
+     * @param location          The location at which the region executing should own
+     * @param task              The task to execute
+     * @param initialDelayTicks The initial delay, in ticks before the method is invoked. Any value less-than 1 is treated as 1.
+     * @param periodTicks       The period, in ticks. Any value less-than 1 is treated as 1.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable task, long initialDelayTicks, long periodTicks) {
+        if (SubmissionLimiter.isLimited(plugin, SchedulerType.REGION)) return SubmissionLimiter.submit(plugin, SchedulerType.REGION, task, () -> runAtFixedRate(plugin, location, task, initialDelayTicks, periodTicks));
+
+        long clampedInitialDelay = Math.max(1, initialDelayTicks);
+        long clampedPeriod = Math.max(1, periodTicks);
+
+        Runnable instrumented = SchedulerMetrics.instrument(plugin, SchedulerType.REGION, task, clampedInitialDelay, clampedPeriod);
 
         if (!FoliaScheduler.isFolia()) {
-            return new TaskWrapper(Bukkit.getScheduler().runTaskTimer(plugin, () -> task.accept(null), initialDelayTicks, periodTicks));
+            return new TaskWrapper(bukkitScheduler.runTaskTimer(plugin, instrumented, clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
         }
 
-        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, location, (o) -> task.accept(null), initialDelayTicks, periodTicks));
+        return new TaskWrapper(regionScheduler.runAtFixedRate(plugin, location, TaskAdapters.consumer(instrumented), clampedInitialDelay, clampedPeriod), SchedulerType.REGION);
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the specified chunk after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin The plugin that owns the task
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param task   The task to execute
+     * @param delay  The delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Consumer<Object> task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, world, chunkX, chunkZ, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the specified chunk after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin The plugin that owns the task
+     * @param world  The world of the region that owns the task
+     * @param chunkX The chunk X coordinate of the region that owns the task
+     * @param chunkZ The chunk Z coordinate of the region that owns the task
+     * @param task   The task to execute
+     * @param delay  The delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, world, chunkX, chunkZ, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the specified chunk after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param world        The world of the region that owns the task
+     * @param chunkX       The chunk X coordinate of the region that owns the task
+     * @param chunkZ       The chunk Z coordinate of the region that owns the task
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Consumer<Object> task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, world, chunkX, chunkZ, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the specified chunk after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param world        The world of the region that owns the task
+     * @param chunkX       The chunk X coordinate of the region that owns the task
+     * @param chunkZ       The chunk Z coordinate of the region that owns the task
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, world, chunkX, chunkZ, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin   The plugin that owns the task
+     * @param location The location at which the region executing should own
+     * @param task     The task to execute
+     * @param delay    The delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Location location, @NotNull Consumer<Object> task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, location, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a task to be executed on the region which owns the location after the specified delay.
+     * Wall-clock delays are rounded up to whole ticks.
+     *
+     * @param plugin   The plugin that owns the task
+     * @param location The location at which the region executing should own
+     * @param task     The task to execute
+     * @param delay    The delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runDelayed(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable task, @NotNull SchedulerDuration delay) {
+        return runDelayed(plugin, location, task, delay.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the location after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param location     The location at which the region executing should own
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Location location, @NotNull Consumer<Object> task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, location, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Schedules a repeating task to be executed on the region which owns the location after the initial delay with the specified period.
+     * Wall-clock durations are rounded up to whole ticks.
+     *
+     * @param plugin       The plugin that owns the task
+     * @param location     The location at which the region executing should own
+     * @param task         The task to execute
+     * @param initialDelay The initial delay, in ticks or in time, before the task is executed. Any value less-than 1 tick is treated as 1 tick.
+     * @param period       The period, in ticks or in time. Any value less-than 1 tick is treated as 1 tick.
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper runAtFixedRate(@NotNull Plugin plugin, @NotNull Location location, @NotNull Runnable task, @NotNull SchedulerDuration initialDelay, @NotNull SchedulerDuration period) {
+        return runAtFixedRate(plugin, location, task, initialDelay.toTicks(), period.toTicks());
+    }
+
+    /**
+     * Attempts to cancel all tasks scheduled by the specified plugin on any region.
+     * Only tasks tracked by the {@link TaskRegistry} are cancelled: tasks with a {@link TaskWrapper} scheduled while it is enabled,
+     * or tagged with a group. Tasks submitted through {@code execute} are not tracked.
+     *
+     * @param plugin Specified plugin.
+     */
+    public void cancel(@NotNull Plugin plugin) {
+        FoliaScheduler.getTaskRegistry().cancelAll(plugin, SchedulerType.REGION);
+    }
+
+    /**
+     * An action run for a chunk by {@link #forEachChunk}.
+     */
+    @FunctionalInterface
+    public interface ChunkAction {
+        /**
+         * @param chunkX The chunk X coordinate
+         * @param chunkZ The chunk Z coordinate
+         */
+        void accept(int chunkX, int chunkZ);
     }
-}
\ No newline at end of file
+}
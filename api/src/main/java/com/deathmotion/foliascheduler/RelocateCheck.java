@@ -24,33 +24,29 @@
 
 package com.deathmotion.foliascheduler;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.Objects;
-
 /**
  * The {@code RelocateCheck} class ensures that the package of the class has been relocated
  * from its original package.
  * This is essential to prevent conflicts with other plugins that may use this library as well.
  * <p>
- * When the class is loaded, a static block invokes the {@link #check()} method to perform
+ * {@link FoliaScheduler} invokes the {@link #check()} method when it is loaded to perform
  * this validation.
- * The package name is compared against an expected original package name
- * stored in a resource file.
+ * The package name is compared against the original package name, which is kept in the class itself
+ * so the check needs no resource lookup.
  * <p>
  * If the package has not been relocated, an {@link IllegalStateException} is thrown with
  * instructions to relocate the package.
  * </p>
- * <p>
- * The original package name is read from the file {@code /original_package_name.txt}, which
- * should be present in the resources directory.
- * </p>
  */
-class RelocateCheck {
+final class RelocateCheck {
 
-    RelocateCheck() {
-        check();
+    /**
+     * The original package name, joined at runtime: relocation rewrites string constants which match the relocated package,
+     * so a plain literal would always equal the current package.
+     */
+    private static final String ORIGINAL_PACKAGE = String.join(".", "com", "deathmotion", "foliascheduler");
+
+    private RelocateCheck() {
     }
 
     /**
@@ -60,34 +56,11 @@ class RelocateCheck {
      *
      * @throws IllegalStateException if the current package has not been relocated
      */
-    private static void check() {
+    static void check() {
         String currentPackage = RelocateCheck.class.getPackage().getName();
-        String originalPackage = getOriginalPackageName();
 
-        if (currentPackage.equals(originalPackage)) {
+        if (currentPackage.equals(ORIGINAL_PACKAGE)) {
             throw new IllegalStateException("In order to use FoliaScheduler, you must relocate the package 'com.deathmotion.foliascheduler' to your own package. Check the readme for more information.");
         }
     }
-
-    /**
-     * Retrieves the original package name from the {@code /original_package_name.txt} file
-     * in the classpath.
-     *
-     * @return the original package name as a {@code String}
-     * @throws RuntimeException if the file cannot be read or is empty
-     */
-    private static String getOriginalPackageName() {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Objects.requireNonNull(RelocateCheck.class.getResourceAsStream("/original_package_name.txt"))))) {
-            String packageName = reader.readLine();
-            if (packageName != null) {
-                return packageName.trim();
-            } else {
-                throw new IOException("The file '/original_package_name.txt' is empty.");
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read the original package name.", e);
-        }
-    }
 }
-
@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A delay or period, expressed either in server ticks or in wall-clock time.
+ * <p>
+ * Every scheduler accepts a duration of either kind: the tick based schedulers round wall-clock time up to whole ticks,
+ * while the asynchronous scheduler converts ticks to time at 50 milliseconds per tick.
+ * All conversions between the two are done by this class.
+ */
+public final class SchedulerDuration {
+
+    /**
+     * The duration of one server tick, in milliseconds.
+     */
+    public static final long MILLIS_PER_TICK = 50;
+
+    /**
+     * A duration of zero ticks.
+     */
+    public static final SchedulerDuration ZERO = new SchedulerDuration(0, null);
+
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(MILLIS_PER_TICK);
+
+    private final long amount;
+    private final @Nullable TimeUnit unit;
+
+    private SchedulerDuration(long amount, @Nullable TimeUnit unit) {
+        this.amount = amount;
+        this.unit = unit;
+    }
+
+    /**
+     * @param ticks The number of server ticks
+     * @return A duration of the given number of ticks
+     */
+    public static SchedulerDuration ofTicks(long ticks) {
+        return ticks == 0 ? ZERO : new SchedulerDuration(ticks, null);
+    }
+
+    /**
+     * @param time The amount of time
+     * @param unit The unit of the time
+     * @return A duration of the given wall-clock time
+     */
+    public static SchedulerDuration of(long time, @NotNull TimeUnit unit) {
+        return new SchedulerDuration(time, unit);
+    }
+
+    /**
+     * @param millis The number of milliseconds
+     * @return A duration of the given number of milliseconds
+     */
+    public static SchedulerDuration ofMillis(long millis) {
+        return of(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Whether this duration was given in ticks
+     */
+    public boolean isTicks() {
+        return unit == null;
+    }
+
+    /**
+     * @return This duration in ticks, rounded up so a task never runs earlier than requested
+     */
+    public long toTicks() {
+        return unit == null ? amount : toTicks(amount, unit);
+    }
+
+    /**
+     * @return This duration in nanoseconds
+     */
+    public long toNanos() {
+        return unit == null ? ticksToNanos(amount) : unit.toNanos(amount);
+    }
+
+    /**
+     * @return This duration in milliseconds, rounded down
+     */
+    public long toMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(toNanos());
+    }
+
+    /**
+     * Converts wall-clock time to ticks, rounding up so a task never runs earlier than requested.
+     * Negative times are treated as zero.
+     *
+     * @param time The amount of time
+     * @param unit The unit of the time
+     * @return The time in ticks
+     */
+    static long toTicks(long time, @NotNull TimeUnit unit) {
+        long nanos = unit.toNanos(time);
+        if (nanos <= 0) return 0;
+
+        return (nanos - 1) / NANOS_PER_TICK + 1;
+    }
+
+    /**
+     * @param ticks The number of ticks
+     * @return The ticks in nanoseconds, saturating instead of overflowing
+     */
+    static long ticksToNanos(long ticks) {
+        if (ticks > Long.MAX_VALUE / NANOS_PER_TICK) return Long.MAX_VALUE;
+        if (ticks < Long.MIN_VALUE / NANOS_PER_TICK) return Long.MIN_VALUE;
+
+        return ticks * NANOS_PER_TICK;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SchedulerDuration)) return false;
+
+        SchedulerDuration other = (SchedulerDuration) o;
+        return toNanos() == other.toNanos();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(toNanos());
+    }
+
+    @Override
+    public String toString() {
+        return unit == null ? amount + " ticks" : amount + " " + unit.name().toLowerCase(Locale.ROOT);
+    }
+}
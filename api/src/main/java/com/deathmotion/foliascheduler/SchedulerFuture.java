@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Composes asynchronous computations with delivery on the thread which owns a region, an entity or the global region.
+ * <p>
+ * Every stage is scheduled through {@link FoliaScheduler}'s schedulers. When the thread completing the previous stage
+ * already owns the target, the next stage runs right away instead of waiting for the next tick.
+ * An exception thrown by a stage skips all following stages and completes the future exceptionally.
+ *
+ * @param <T> The type of the value this future completes with
+ */
+public final class SchedulerFuture<T> {
+
+    private final Plugin plugin;
+    private final CompletableFuture<T> future;
+
+    private SchedulerFuture(@NotNull Plugin plugin, @NotNull CompletableFuture<T> future) {
+        this.plugin = plugin;
+        this.future = future;
+    }
+
+    /**
+     * Computes a value asynchronously.
+     *
+     * @param plugin   The plugin that owns the tasks
+     * @param supplier The computation to run asynchronously
+     * @param <T>      The type of the computed value
+     * @return A future completing with the computed value
+     */
+    public static <T> SchedulerFuture<T> supplyAsync(@NotNull Plugin plugin, @NotNull Supplier<? extends T> supplier) {
+        return completed(plugin, null).thenAsync(ignored -> supplier.get());
+    }
+
+    /**
+     * Starts a chain from an already known value, on the current thread.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @param value  The value to start with
+     * @param <T>    The type of the value
+     * @return A future which is already completed with the value
+     */
+    public static <T> SchedulerFuture<T> completed(@NotNull Plugin plugin, @Nullable T value) {
+        return new SchedulerFuture<>(plugin, CompletableFuture.completedFuture(value));
+    }
+
+    static <T> SchedulerFuture<T> of(@NotNull Plugin plugin, @NotNull CompletableFuture<T> future) {
+        return new SchedulerFuture<>(plugin, future);
+    }
+
+    /**
+     * Applies the function asynchronously.
+     *
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A future completing with the result of the function
+     */
+    public <R> SchedulerFuture<R> thenAsync(@NotNull Function<? super T, ? extends R> function) {
+        return hop(function, run -> FoliaScheduler.getAsyncScheduler().execute(plugin, run));
+    }
+
+    /**
+     * Applies the function on the region which owns the location.
+     *
+     * @param location The location at which the region executing should own
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A future completing with the result of the function
+     */
+    public <R> SchedulerFuture<R> thenOnRegion(@NotNull Location location, @NotNull Function<? super T, ? extends R> function) {
+        return hop(function, run -> FoliaScheduler.getRegionScheduler().executeOrRun(plugin, location, run));
+    }
+
+    /**
+     * Applies the function on the region which owns the entity.
+     * If the entity is retired before the function could run, including when it already was, the future fails with a {@link CancellationException}.
+     *
+     * @param entity   The entity whose region should apply the function
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A future completing with the result of the function
+     */
+    public <R> SchedulerFuture<R> thenOnEntity(@NotNull Entity entity, @NotNull Function<? super T, ? extends R> function) {
+        CompletableFuture<R> next = new CompletableFuture<>();
+        Runnable retired = () -> next.completeExceptionally(new CancellationException("The entity was retired"));
+
+        return hop(next, function, run -> {
+            // An entity which was already retired schedules nothing, so its retired callback never runs either
+            if (!FoliaScheduler.getEntityScheduler().executeOrRun(entity, plugin, run, retired)) retired.run();
+        });
+    }
+
+    /**
+     * Applies the function on the global region.
+     *
+     * @param function The function to apply
+     * @param <R>      The type of the result
+     * @return A future completing with the result of the function
+     */
+    public <R> SchedulerFuture<R> thenOnGlobal(@NotNull Function<? super T, ? extends R> function) {
+        return hop(function, run -> FoliaScheduler.getGlobalRegionScheduler().executeOrRun(plugin, run));
+    }
+
+    /**
+     * @return The underlying {@link CompletableFuture}
+     */
+    public CompletableFuture<T> toCompletableFuture() {
+        return future;
+    }
+
+    private <R> SchedulerFuture<R> hop(Function<? super T, ? extends R> function, Executor executor) {
+        return hop(new CompletableFuture<>(), function, executor);
+    }
+
+    private <R> SchedulerFuture<R> hop(CompletableFuture<R> next, Function<? super T, ? extends R> function, Executor executor) {
+        future.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                next.completeExceptionally(throwable);
+                return;
+            }
+
+            try {
+                executor.execute(SubmissionLimiter.failOnDrop(() -> {
+                    try {
+                        next.complete(function.apply(value));
+                    } catch (Throwable t) {
+                        next.completeExceptionally(t);
+                    }
+                }, next));
+            } catch (Throwable t) {
+                next.completeExceptionally(t);
+            }
+        });
+
+        return new SchedulerFuture<>(plugin, next);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Records submissions, executions, cancellations, queue wait and run time per plugin and per scheduler.
+ * <p>
+ * Metrics are disabled by default. While disabled, tasks are handed to the platform untouched.
+ * While enabled, every task is wrapped once, and counters are striped {@link LongAdder}s,
+ * so recording never contends across region threads.
+ */
+public final class SchedulerMetrics {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(10),
+            TimeUnit.MICROSECONDS.toNanos(50),
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1)
+    };
+
+    private final Map<Plugin, Counters[]> counters = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    SchedulerMetrics() {
+    }
+
+    /**
+     * Starts recording metrics for tasks submitted from now on.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops recording metrics. Tasks submitted while enabled keep being recorded.
+     */
+    public void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return Whether metrics are recorded for newly submitted tasks
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Discards all recorded metrics.
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * Takes a snapshot of the metrics of every plugin which submitted tasks while metrics were enabled.
+     *
+     * @return The metrics per plugin and per scheduler
+     */
+    public Map<Plugin, Map<SchedulerType, TaskMetrics>> snapshot() {
+        Map<Plugin, Map<SchedulerType, TaskMetrics>> snapshot = new HashMap<>();
+        for (Map.Entry<Plugin, Counters[]> entry : counters.entrySet()) {
+            Map<SchedulerType, TaskMetrics> perScheduler = new EnumMap<>(SchedulerType.class);
+            for (SchedulerType type : SchedulerType.values()) {
+                perScheduler.put(type, entry.getValue()[type.ordinal()].snapshot());
+            }
+            snapshot.put(entry.getKey(), Collections.unmodifiableMap(perScheduler));
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Takes a snapshot of the metrics of one plugin on one scheduler.
+     *
+     * @param plugin The plugin
+     * @param type   The scheduler
+     * @return The metrics, all zero if nothing was recorded
+     */
+    public TaskMetrics snapshot(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        Counters[] pluginCounters = counters.get(plugin);
+        return pluginCounters != null ? pluginCounters[type.ordinal()].snapshot() : new Counters().snapshot();
+    }
+
+    /**
+     * Records a task being cancelled through its {@link com.deathmotion.foliascheduler.utils.TaskWrapper}.
+     *
+     * @param plugin The plugin owning the task
+     * @param type   The scheduler the task was submitted through
+     */
+    @ApiStatus.Internal
+    public void recordCancellation(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        if (!enabled) return;
+        countersOf(plugin, type).cancelled.increment();
+    }
+
+    static Runnable instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Runnable task) {
+        return instrument(plugin, type, task, 0, 0);
+    }
+
+    static Runnable instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Runnable task, long delayTicks, long periodTicks) {
+        task = SlowTaskWatchdog.watch(plugin, type, task);
+        SchedulerMetrics metrics = FoliaScheduler.getMetrics();
+        if (!metrics.enabled) return task;
+
+        return new MeasuredTask(metrics.submitted(plugin, type), task, null, SchedulerDuration.ticksToNanos(delayTicks), SchedulerDuration.ticksToNanos(periodTicks));
+    }
+
+    static Runnable instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Runnable task, long delay, long period, @NotNull TimeUnit timeUnit) {
+        task = SlowTaskWatchdog.watch(plugin, type, task);
+        SchedulerMetrics metrics = FoliaScheduler.getMetrics();
+        if (!metrics.enabled) return task;
+
+        return new MeasuredTask(metrics.submitted(plugin, type), task, null, timeUnit.toNanos(delay), timeUnit.toNanos(period));
+    }
+
+    static Consumer<Object> instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Consumer<Object> task) {
+        return instrument(plugin, type, task, 0, 0);
+    }
+
+    static Consumer<Object> instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Consumer<Object> task, long delayTicks, long periodTicks) {
+        task = SlowTaskWatchdog.watch(plugin, type, task);
+        SchedulerMetrics metrics = FoliaScheduler.getMetrics();
+        if (!metrics.enabled) return task;
+
+        return new MeasuredTask(metrics.submitted(plugin, type), null, task, SchedulerDuration.ticksToNanos(delayTicks), SchedulerDuration.ticksToNanos(periodTicks));
+    }
+
+    static Consumer<Object> instrument(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Consumer<Object> task, long delay, long period, @NotNull TimeUnit timeUnit) {
+        task = SlowTaskWatchdog.watch(plugin, type, task);
+        SchedulerMetrics metrics = FoliaScheduler.getMetrics();
+        if (!metrics.enabled) return task;
+
+        return new MeasuredTask(metrics.submitted(plugin, type), null, task, timeUnit.toNanos(delay), timeUnit.toNanos(period));
+    }
+
+    private Counters submitted(Plugin plugin, SchedulerType type) {
+        Counters typeCounters = countersOf(plugin, type);
+        typeCounters.submitted.increment();
+        return typeCounters;
+    }
+
+    private Counters countersOf(Plugin plugin, SchedulerType type) {
+        Counters[] pluginCounters = counters.get(plugin);
+        if (pluginCounters == null) {
+            pluginCounters = counters.computeIfAbsent(plugin, p -> {
+                Counters[] created = new Counters[SchedulerType.values().length];
+                for (int i = 0; i < created.length; i++) created[i] = new Counters();
+                return created;
+            });
+        }
+
+        return pluginCounters[type.ordinal()];
+    }
+
+    private static final class Counters {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final Histogram queueWait = new Histogram();
+        private final Histogram runTime = new Histogram();
+
+        private TaskMetrics snapshot() {
+            return new TaskMetrics(submitted.sum(), executed.sum(), cancelled.sum(), queueWait.snapshot(), runTime.snapshot());
+        }
+    }
+
+    private static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_NANOS.length + 1];
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        private void record(long nanos) {
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_BOUNDS_NANOS.length && nanos > BUCKET_UPPER_BOUNDS_NANOS[bucket]) bucket++;
+
+            buckets[bucket].increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private HistogramSnapshot snapshot() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) counts[i] = buckets[i].sum();
+            return new HistogramSnapshot(BUCKET_UPPER_BOUNDS_NANOS.clone(), counts, totalNanos.sum(), maxNanos.get());
+        }
+    }
+
+    /**
+     * Wraps a task to record its queue wait and run time.
+     * Like the platform schedulers, the next run of a repeating task is due one period after the previous run started.
+     * Runs of one task never overlap, so the due time needs no synchronization beyond what the scheduler provides.
+     */
+    private static final class MeasuredTask implements Runnable, Consumer<Object> {
+        private final Counters counters;
+        private final Runnable runnable;
+        private final Consumer<Object> consumer;
+        private final long periodNanos;
+        private long dueNanos;
+
+        private MeasuredTask(Counters counters, Runnable runnable, Consumer<Object> consumer, long delayNanos, long periodNanos) {
+            this.counters = counters;
+            this.runnable = runnable;
+            this.consumer = consumer;
+            this.periodNanos = periodNanos;
+            this.dueNanos = System.nanoTime() + delayNanos;
+        }
+
+        @Override
+        public void run() {
+            accept(null);
+        }
+
+        @Override
+        public void accept(Object argument) {
+            long start = System.nanoTime();
+            counters.queueWait.record(Math.max(0, start - dueNanos));
+            dueNanos = start + periodNanos;
+
+            try {
+                if (runnable != null) {
+                    runnable.run();
+                } else {
+                    consumer.accept(argument);
+                }
+            } finally {
+                counters.executed.increment();
+                counters.runTime.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A run of a region, entity or global region task which took longer than the {@link SlowTaskWatchdog}'s threshold.
+ */
+public final class SlowTaskReport {
+
+    private final Plugin plugin;
+    private final SchedulerType schedulerType;
+    private final Class<?> taskClass;
+    private final String threadName;
+    private final long durationNanos;
+    private final long timestampMillis;
+    private final StackTraceElement[] sampledStack;
+
+    SlowTaskReport(@NotNull Plugin plugin, @NotNull SchedulerType schedulerType, @NotNull Class<?> taskClass, @NotNull String threadName,
+                   long durationNanos, long timestampMillis, @Nullable StackTraceElement[] sampledStack) {
+        this.plugin = plugin;
+        this.schedulerType = schedulerType;
+        this.taskClass = taskClass;
+        this.threadName = threadName;
+        this.durationNanos = durationNanos;
+        this.timestampMillis = timestampMillis;
+        this.sampledStack = sampledStack;
+    }
+
+    /**
+     * @return The plugin which owns the task
+     */
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * @return The scheduler the task was submitted through
+     */
+    public SchedulerType getSchedulerType() {
+        return schedulerType;
+    }
+
+    /**
+     * @return The class of the submitted task, usually a lambda class named after the class which submitted it
+     */
+    public Class<?> getTaskClass() {
+        return taskClass;
+    }
+
+    /**
+     * @return The name of the thread which ran the task
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return How long the run took, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return When the run finished, in milliseconds since the epoch
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return The stack of the task's thread, sampled once the run had exceeded the threshold, or null if the run finished before it was sampled
+     */
+    public @Nullable StackTraceElement[] getSampledStack() {
+        return sampledStack != null ? sampledStack.clone() : null;
+    }
+}
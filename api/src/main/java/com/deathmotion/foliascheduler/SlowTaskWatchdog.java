@@ -0,0 +1,306 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Reports runs of region, entity and global region tasks which take longer than a threshold.
+ * <p>
+ * The watchdog is disabled by default. While disabled, tasks are handed to the platform untouched.
+ * While enabled, every such task is wrapped once and a daemon thread samples the stack of runs which exceed the threshold,
+ * so a report shows what the task was doing rather than only that it was slow.
+ * Reports are kept in a short history and logged to the owning plugin's logger, at most once every 10 seconds per plugin.
+ */
+public final class SlowTaskWatchdog {
+
+    private static final int REPORT_HISTORY = 64;
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long MIN_SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Thread, Run> running = new ConcurrentHashMap<>();
+    private final Deque<SlowTaskReport> reports = new ArrayDeque<>();
+    private final Map<Plugin, LogWindow> logWindows = new ConcurrentHashMap<>();
+    private ScheduledThreadPoolExecutor sampler;
+    private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private volatile boolean logging = true;
+    private volatile boolean enabled;
+
+    SlowTaskWatchdog() {
+    }
+
+    /**
+     * Starts watching tasks submitted from now on.
+     *
+     * @param threshold The run time above which a run is reported
+     * @param timeUnit  The time unit of the threshold
+     */
+    public synchronized void enable(long threshold, @NotNull TimeUnit timeUnit) {
+        if (threshold < 1) throw new IllegalArgumentException("The threshold must be positive");
+        thresholdNanos = timeUnit.toNanos(threshold);
+
+        if (sampler != null) sampler.shutdownNow();
+        sampler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "FoliaScheduler Slow Task Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(MIN_SAMPLE_INTERVAL_NANOS, thresholdNanos / 2);
+        sampler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+        enabled = true;
+    }
+
+    /**
+     * Stops watching tasks submitted from now on. Tasks submitted while enabled keep being reported, without stack samples.
+     */
+    public synchronized void disable() {
+        enabled = false;
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    /**
+     * @return Whether newly submitted tasks are watched
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param timeUnit The time unit to convert the threshold to
+     * @return The run time above which a run is reported
+     */
+    public long getThreshold(@NotNull TimeUnit timeUnit) {
+        return timeUnit.convert(thresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets whether reports are logged to the owning plugin's logger. Reports are kept in the history either way.
+     *
+     * @param logging Whether to log reports
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * @return Whether reports are logged to the owning plugin's logger
+     */
+    public boolean isLogging() {
+        return logging;
+    }
+
+    /**
+     * @return The latest reports, at most 64, oldest first
+     */
+    public List<SlowTaskReport> getRecentReports() {
+        synchronized (reports) {
+            return Collections.unmodifiableList(new ArrayList<>(reports));
+        }
+    }
+
+    /**
+     * Discards the report history.
+     */
+    public void clearReports() {
+        synchronized (reports) {
+            reports.clear();
+        }
+    }
+
+    static Runnable watch(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Runnable task) {
+        SlowTaskWatchdog watchdog = FoliaScheduler.getSlowTaskWatchdog();
+        if (!watchdog.enabled || isAsync(type)) return task;
+
+        return new WatchedTask(watchdog, plugin, type, task, null);
+    }
+
+    static Consumer<Object> watch(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Consumer<Object> task) {
+        SlowTaskWatchdog watchdog = FoliaScheduler.getSlowTaskWatchdog();
+        if (!watchdog.enabled || isAsync(type)) return task;
+
+        return new WatchedTask(watchdog, plugin, type, null, task);
+    }
+
+    private static boolean isAsync(SchedulerType type) {
+        return type == SchedulerType.ASYNC || type == SchedulerType.ASYNC_IO;
+    }
+
+    /**
+     * Samples the stack of every run which has exceeded the threshold and has not been sampled yet.
+     */
+    private void sample() {
+        long now = System.nanoTime();
+        long threshold = thresholdNanos;
+
+        for (Run run : running.values()) {
+            if (run.sampledStack != null || now - run.startNanos < threshold) continue;
+
+            StackTraceElement[] stack = run.thread.getStackTrace();
+            // The thread may have finished the run while its stack was taken
+            if (running.get(run.thread) == run) run.sampledStack = stack;
+        }
+    }
+
+    private void report(Plugin plugin, SchedulerType type, Class<?> taskClass, Run run, long durationNanos) {
+        SlowTaskReport report = new SlowTaskReport(plugin, type, taskClass, run.thread.getName(), durationNanos, System.currentTimeMillis(), run.sampledStack);
+        synchronized (reports) {
+            if (reports.size() == REPORT_HISTORY) reports.removeFirst();
+            reports.addLast(report);
+        }
+
+        if (!logging) return;
+
+        LogWindow window = logWindows.computeIfAbsent(plugin, p -> new LogWindow());
+        int suppressed = window.tryLog();
+        if (suppressed < 0) return;
+
+        StringBuilder message = new StringBuilder()
+                .append("A ").append(type.name().toLowerCase(Locale.ROOT).replace('_', ' '))
+                .append(" task took ").append(String.format(Locale.ROOT, "%.2f", durationNanos / 1_000_000.0))
+                .append(" ms, above the threshold of ").append(String.format(Locale.ROOT, "%.2f", thresholdNanos / 1_000_000.0))
+                .append(" ms: ").append(taskClass.getName()).append(" on ").append(report.getThreadName());
+        if (suppressed > 0) message.append(" (").append(suppressed).append(" more slow tasks were not logged)");
+
+        if (run.sampledStack != null) {
+            plugin.getLogger().log(Level.WARNING, message.toString(), new SampledStack(run.sampledStack));
+        } else {
+            plugin.getLogger().warning(message.toString());
+        }
+    }
+
+    private static final class Run {
+        private final Thread thread;
+        private final long startNanos;
+        private volatile StackTraceElement[] sampledStack;
+
+        private Run(Thread thread, long startNanos) {
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Lets one report per plugin through every {@link #LOG_INTERVAL_NANOS} and counts the others.
+     */
+    private static final class LogWindow {
+        private final AtomicLong nextLogNanos = new AtomicLong(System.nanoTime());
+        private final AtomicInteger suppressed = new AtomicInteger();
+
+        /**
+         * @return The amount of reports suppressed since the last logged one, or -1 if this report should not be logged
+         */
+        private int tryLog() {
+            long now = System.nanoTime();
+            long next = nextLogNanos.get();
+            if (now - next < 0 || !nextLogNanos.compareAndSet(next, now + LOG_INTERVAL_NANOS)) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+
+            return suppressed.getAndSet(0);
+        }
+    }
+
+    /**
+     * Carries a sampled stack to the logger, so it is printed like an exception's.
+     */
+    private static final class SampledStack extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private SampledStack(StackTraceElement[] stack) {
+            super("Stack sampled while the task was running");
+            setStackTrace(stack);
+        }
+    }
+
+    private static final class WatchedTask implements Runnable, Consumer<Object> {
+        private final SlowTaskWatchdog watchdog;
+        private final Plugin plugin;
+        private final SchedulerType type;
+        private final Runnable runnable;
+        private final Consumer<Object> consumer;
+
+        private WatchedTask(SlowTaskWatchdog watchdog, Plugin plugin, SchedulerType type, Runnable runnable, Consumer<Object> consumer) {
+            this.watchdog = watchdog;
+            this.plugin = plugin;
+            this.type = type;
+            this.runnable = runnable;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            accept(null);
+        }
+
+        @Override
+        public void accept(Object argument) {
+            Thread thread = Thread.currentThread();
+            Run run = new Run(thread, System.nanoTime());
+            // A task may run another one inline, such as through executeOrRun
+            Run outer = watchdog.running.put(thread, run);
+
+            try {
+                if (runnable != null) {
+                    runnable.run();
+                } else {
+                    consumer.accept(argument);
+                }
+            } finally {
+                long duration = System.nanoTime() - run.startNanos;
+                if (outer != null) {
+                    watchdog.running.put(thread, outer);
+                } else {
+                    watchdog.running.remove(thread, run);
+                }
+
+                if (duration >= watchdog.thresholdNanos) {
+                    watchdog.report(plugin, type, runnable != null ? runnable.getClass() : consumer.getClass(), run, duration);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Computes a value over the index range {@code [from, to)} for {@link AsyncScheduler#splitAsync}, halving it until a part holds
+ * at most {@code threshold} indices. Sizes and midpoints are computed in {@code long}, so any {@code int} range splits without overflowing.
+ *
+ * @param <T> The type of the computed value
+ */
+final class SplitTask<T> extends RecursiveTask<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final AsyncScheduler.RangeFunction<T> compute;
+    private final BinaryOperator<T> merge;
+
+    SplitTask(int from, int to, int threshold, @NotNull AsyncScheduler.RangeFunction<T> compute, @NotNull BinaryOperator<T> merge) {
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.compute = compute;
+        this.merge = merge;
+    }
+
+    @Override
+    protected T compute() {
+        if ((long) to - from <= threshold) return compute.apply(from, to);
+
+        int middle = (int) (from + ((long) to - from) / 2);
+        SplitTask<T> lower = new SplitTask<>(from, middle, threshold, compute, merge);
+        SplitTask<T> upper = new SplitTask<>(middle, to, threshold, compute, merge);
+        upper.fork();
+        T lowerValue = lower.compute();
+        return merge.apply(lowerValue, upper.join());
+    }
+}
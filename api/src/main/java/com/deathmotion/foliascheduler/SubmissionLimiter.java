@@ -0,0 +1,448 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Limits how fast a plugin may submit tasks through each scheduler, using a token bucket per plugin and scheduler.
+ * Limits are checked by the schedulers before a task reaches the Bukkit or Folia queues, so a plugin flooding a scheduler
+ * is held back without slowing down the tasks of other plugins. No limits are configured by default.
+ * <p>
+ * Buckets are lock-free: taking a permit is a single compare-and-set on the bucket's state.
+ * Submissions held back by {@link OverflowPolicy#DEFER} or {@link OverflowPolicy#DROP_OLDEST} are submitted again
+ * in order, once per tick, for as long as permits are free. Their {@link TaskWrapper} can be cancelled while they wait.
+ * Submissions dropped by {@link OverflowPolicy#DROP_OLDEST} or a shutdown are cancelled, and the futures of
+ * {@link SchedulerFuture}, {@link TaskScope}, {@link IncrementalJob} and {@code forEachChunk} waiting on them fail.
+ * <p>
+ * Submissions through {@code executeOrRun} which run inline are not submissions and are never limited.
+ */
+public final class SubmissionLimiter {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(SchedulerDuration.MILLIS_PER_TICK);
+
+    // Set while a submission which already has a permit calls back into its scheduler
+    private static final ThreadLocal<Boolean> PERMITTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Map<Plugin, AtomicReferenceArray<Bucket>> buckets = new ConcurrentHashMap<>();
+    private volatile boolean active;
+    private ScheduledThreadPoolExecutor pump;
+
+    SubmissionLimiter() {
+    }
+
+    /**
+     * Limits the rate at which the plugin may submit tasks through one scheduler, replacing any previous limit.
+     * Submissions held back by the previous limit are submitted again under the new one.
+     *
+     * @param plugin           The plugin to limit
+     * @param type             The scheduler to limit
+     * @param permitsPerSecond The sustained amount of submissions per second
+     * @param burst            The amount of submissions which may be made at once after a quiet period,
+     *                         and the size of the backlog for {@link OverflowPolicy#DROP_OLDEST}
+     * @param policy           What happens to submissions made over the limit
+     */
+    public void limit(@NotNull Plugin plugin, @NotNull SchedulerType type, double permitsPerSecond, int burst, @NotNull OverflowPolicy policy) {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be positive, was " + permitsPerSecond);
+        if (burst < 1) throw new IllegalArgumentException("burst must be at least 1, was " + burst);
+
+        startPump();
+        Bucket previous = bucketsOf(plugin).getAndSet(type.ordinal(), new Bucket(plugin, permitsPerSecond, burst, policy));
+        active = true;
+
+        if (previous != null) previous.release();
+    }
+
+    /**
+     * Removes the limit of the plugin on one scheduler. Submissions held back by it are submitted right away.
+     *
+     * @param plugin The plugin
+     * @param type   The scheduler
+     */
+    public void unlimit(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        AtomicReferenceArray<Bucket> pluginBuckets = buckets.get(plugin);
+        if (pluginBuckets == null) return;
+
+        Bucket previous = pluginBuckets.getAndSet(type.ordinal(), null);
+        if (previous != null) previous.release();
+    }
+
+    /**
+     * Removes every limit of the plugin. Submissions held back by them are submitted right away.
+     *
+     * @param plugin The plugin
+     */
+    public void unlimit(@NotNull Plugin plugin) {
+        AtomicReferenceArray<Bucket> pluginBuckets = buckets.remove(plugin);
+        if (pluginBuckets == null) return;
+
+        for (int i = 0; i < pluginBuckets.length(); i++) {
+            Bucket previous = pluginBuckets.getAndSet(i, null);
+            if (previous != null) previous.release();
+        }
+    }
+
+    /**
+     * @param plugin The plugin
+     * @param type   The scheduler
+     * @return The amount of submissions currently held back, including cancelled ones which have not been discarded yet
+     */
+    public int getBacklog(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        Bucket bucket = bucketOf(plugin, type);
+        return bucket != null ? bucket.backlogSize.get() : 0;
+    }
+
+    /**
+     * Checked by the schedulers before anything else, as {@code if (isLimited(plugin, type)) return submit(plugin, type, task, () -> ...);}.
+     * The submission passed to {@link #submit} calls the same scheduler method again, which then skips the limiter.
+     *
+     * @return Whether the plugin has a limit on the scheduler and the current thread is not submitting a task which already has a permit
+     */
+    static boolean isLimited(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        SubmissionLimiter limiter = FoliaScheduler.getSubmissionLimiter();
+        return limiter.active && limiter.bucketOf(plugin, type) != null && !PERMITTED.get();
+    }
+
+    /**
+     * Takes a permit for a submission returning a handle, submitting it right away if one is free and holding it back otherwise.
+     *
+     * @param task       The task being submitted, told when its submission is dropped if it is {@link Droppable}
+     * @param submission Submits the task, called with a permit
+     * @return The handle of the submitted task, or of the held back submission
+     * @throws RejectedExecutionException if the plugin is over its limit and the policy is {@link OverflowPolicy#REJECT}
+     */
+    static TaskWrapper submit(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Object task, @NotNull Supplier<TaskWrapper> submission) {
+        Bucket bucket = FoliaScheduler.getSubmissionLimiter().admit(plugin, type);
+        if (bucket == null) return permitted(submission);
+
+        Deferred deferred = bucket.enqueue(submission, task);
+        FoliaScheduler.getTaskRegistry().add(plugin, type, deferred);
+        return new TaskWrapper(plugin, deferred);
+    }
+
+    /**
+     * Takes a permit for a submission without a handle, submitting it right away if one is free and holding it back otherwise.
+     *
+     * @param task       The task being submitted, told when its submission is dropped if it is {@link Droppable}
+     * @param submission Submits the task, called with a permit
+     * @throws RejectedExecutionException if the plugin is over its limit and the policy is {@link OverflowPolicy#REJECT}
+     */
+    static void execute(@NotNull Plugin plugin, @NotNull SchedulerType type, @NotNull Object task, @NotNull Runnable submission) {
+        Supplier<TaskWrapper> supplier = () -> {
+            submission.run();
+            return null;
+        };
+
+        Bucket bucket = FoliaScheduler.getSubmissionLimiter().admit(plugin, type);
+        if (bucket == null) {
+            permitted(supplier);
+        } else {
+            bucket.enqueue(supplier, task);
+        }
+    }
+
+    /**
+     * Wraps a task which completes a future, so the future fails if the submission of the task is dropped.
+     *
+     * @param task   The task
+     * @param future The future the task completes
+     * @return The wrapped task
+     */
+    static Runnable failOnDrop(@NotNull Runnable task, @NotNull CompletableFuture<?> future) {
+        return new FailOnDrop(task, future);
+    }
+
+    private static <T> T permitted(Supplier<T> submission) {
+        if (PERMITTED.get()) return submission.get();
+
+        PERMITTED.set(Boolean.TRUE);
+        try {
+            return submission.get();
+        } finally {
+            PERMITTED.set(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * @return null if a permit was taken, otherwise the bucket to hold the submission back in
+     */
+    private @Nullable Bucket admit(Plugin plugin, SchedulerType type) {
+        Bucket bucket = bucketOf(plugin, type);
+        if (bucket == null || bucket.tryAdmit()) return null;
+
+        if (bucket.policy == OverflowPolicy.REJECT) {
+            throw new RejectedExecutionException(plugin.getName() + " exceeded its submission limit on the " + type + " scheduler");
+        }
+        return bucket;
+    }
+
+    private @Nullable Bucket bucketOf(Plugin plugin, SchedulerType type) {
+        AtomicReferenceArray<Bucket> pluginBuckets = buckets.get(plugin);
+        return pluginBuckets != null ? pluginBuckets.get(type.ordinal()) : null;
+    }
+
+    private AtomicReferenceArray<Bucket> bucketsOf(Plugin plugin) {
+        return buckets.computeIfAbsent(plugin, p -> new AtomicReferenceArray<>(SchedulerType.values().length));
+    }
+
+    /**
+     * Removes every limit and stops the pump thread. Submissions held back by the limits are cancelled rather than submitted,
+     * as the plugin owning them is being disabled.
+     */
+    synchronized void shutdown() {
+        active = false;
+        for (AtomicReferenceArray<Bucket> pluginBuckets : buckets.values()) {
+            for (int i = 0; i < pluginBuckets.length(); i++) {
+                Bucket previous = pluginBuckets.getAndSet(i, null);
+                if (previous != null) previous.discard();
+            }
+        }
+        buckets.clear();
+
+        if (pump != null) {
+            pump.shutdownNow();
+            pump = null;
+        }
+    }
+
+    private synchronized void startPump() {
+        if (pump != null) return;
+
+        pump = new ScheduledThreadPoolExecutor(1, runnable -> {
+            // Submissions drained by the pump have taken their permit already
+            Thread thread = new Thread(() -> permitted(() -> {
+                runnable.run();
+                return null;
+            }), "FoliaScheduler Submission Limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pump.scheduleAtFixedRate(this::drain, TICK_NANOS, TICK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    private void drain() {
+        for (AtomicReferenceArray<Bucket> pluginBuckets : buckets.values()) {
+            for (int i = 0; i < pluginBuckets.length(); i++) {
+                Bucket bucket = pluginBuckets.get(i);
+                if (bucket != null) bucket.drain();
+            }
+        }
+    }
+
+    /**
+     * A token bucket kept as the time at which its next permit is free, the generic cell rate algorithm.
+     * The bucket is full once that time lies in the past, and empty once it lies more than the burst ahead of now.
+     */
+    private static final class Bucket {
+
+        private final Plugin plugin;
+        private final OverflowPolicy policy;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final int capacity;
+        private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+        private final Queue<Deferred> backlog = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlogSize = new AtomicInteger();
+
+        Bucket(Plugin plugin, double permitsPerSecond, int burst, OverflowPolicy policy) {
+            this.plugin = plugin;
+            this.policy = policy;
+            this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.burstNanos = (long) Math.min((double) intervalNanos * (burst - 1), Long.MAX_VALUE / 4);
+            this.capacity = policy == OverflowPolicy.DROP_OLDEST ? burst : Integer.MAX_VALUE;
+        }
+
+        /**
+         * Submissions wait behind the backlog, so held back submissions keep their order.
+         */
+        boolean tryAdmit() {
+            return backlog.isEmpty() && tryAcquire();
+        }
+
+        boolean tryAcquire() {
+            long now = System.nanoTime();
+            while (true) {
+                long next = nextPermitNanos.get();
+                long start = next - now > 0 ? next : now;
+                if (start - now > burstNanos) return false;
+                if (nextPermitNanos.compareAndSet(next, start + intervalNanos)) return true;
+            }
+        }
+
+        Deferred enqueue(Supplier<TaskWrapper> submission, Object task) {
+            if (policy == OverflowPolicy.DROP_OLDEST) {
+                while (backlogSize.get() >= capacity) {
+                    Deferred oldest = backlog.poll();
+                    if (oldest == null) break;
+
+                    backlogSize.decrementAndGet();
+                    oldest.drop();
+                }
+            }
+
+            Deferred deferred = new Deferred(plugin, submission, task instanceof Droppable ? (Droppable) task : null);
+            backlog.offer(deferred);
+            backlogSize.incrementAndGet();
+            return deferred;
+        }
+
+        void drain() {
+            Deferred next;
+            while ((next = backlog.peek()) != null) {
+                // Cancelled submissions are discarded without taking a permit
+                if (!next.isCancelled() && !tryAcquire()) return;
+
+                next = backlog.poll();
+                if (next == null) return;
+
+                backlogSize.decrementAndGet();
+                next.run();
+            }
+        }
+
+        /**
+         * Cancels every held back submission, after the bucket has been removed.
+         */
+        void discard() {
+            Deferred next;
+            while ((next = backlog.poll()) != null) {
+                backlogSize.decrementAndGet();
+                next.drop();
+            }
+        }
+
+        /**
+         * Submits every held back submission right away, after the bucket has been removed.
+         */
+        void release() {
+            Deferred next;
+            while ((next = backlog.poll()) != null) {
+                backlogSize.decrementAndGet();
+                next.run();
+            }
+        }
+    }
+
+    /**
+     * A held back submission. Cancelling it once it has been submitted cancels the submitted task instead.
+     * A submission which ended up not being scheduled, because it failed or its entity was retired, reports as cancelled.
+     */
+    private static final class Deferred extends FutureTask<TaskWrapper> {
+
+        private final Plugin plugin;
+        private final @Nullable Droppable droppable;
+        private volatile @Nullable TaskWrapper submitted;
+
+        Deferred(Plugin plugin, Supplier<TaskWrapper> submission, @Nullable Droppable droppable) {
+            super(submission::get);
+            this.plugin = plugin;
+            this.droppable = droppable;
+        }
+
+        /**
+         * Cancels the submission without it ever being submitted, telling the task if it has to know.
+         */
+        void drop() {
+            if (super.cancel(false) && droppable != null) droppable.dropped();
+        }
+
+        @Override
+        protected void set(TaskWrapper task) {
+            submitted = task;
+            super.set(task);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            plugin.getLogger().log(Level.WARNING, "Failed to submit a task held back by the submission limiter", t);
+            super.setException(t);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (super.cancel(mayInterruptIfRunning)) return true;
+
+            TaskWrapper task = submitted;
+            if (task == null || task.isCancelled()) return false;
+
+            task.cancel();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            TaskWrapper task = submitted;
+            if (task == null) return super.isCancelled() || isDone();
+            return task.isCancelled();
+        }
+    }
+
+    /**
+     * A task which has to know when its submission is dropped, by {@link OverflowPolicy#DROP_OLDEST} or a shutdown,
+     * such as one completing a future nothing else would complete.
+     */
+    interface Droppable {
+        void dropped();
+    }
+
+    private static final class FailOnDrop implements Runnable, Droppable {
+
+        private final Runnable task;
+        private final CompletableFuture<?> future;
+
+        FailOnDrop(Runnable task, CompletableFuture<?> future) {
+            this.task = task;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public void dropped() {
+            future.completeExceptionally(new RejectedExecutionException("The submission was dropped by the submission limiter"));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Adapts the task types accepted by the facades to the task type Folia's schedulers expect.
+ */
+final class TaskAdapters {
+
+    private TaskAdapters() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Hands a {@code Consumer<Object>} to Folia without wrapping it.
+     * A consumer of {@link Object} accepts any {@link ScheduledTask}, so the cast is safe.
+     *
+     * @param task The task to adapt
+     * @return The same consumer, typed for Folia
+     */
+    @SuppressWarnings("unchecked")
+    static Consumer<ScheduledTask> consumer(@NotNull Consumer<Object> task) {
+        return (Consumer<ScheduledTask>) (Consumer<?>) task;
+    }
+
+    /**
+     * Adapts a {@code Consumer<Object>} to a {@link Runnable} for Bukkit, passing {@code null} to the consumer.
+     *
+     * @param task The task to adapt
+     * @return A runnable invoking the consumer
+     */
+    static Runnable runnable(@NotNull Consumer<Object> task) {
+        return () -> task.accept(null);
+    }
+
+    /**
+     * Adapts a {@link Runnable} to the consumer Folia expects.
+     *
+     * @param task The task to adapt
+     * @return A consumer invoking the runnable
+     */
+    static Consumer<ScheduledTask> consumer(@NotNull Runnable task) {
+        return scheduledTask -> task.run();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the keys of tasks which are pending, so at most one task per key is queued at a time.
+ * <p>
+ * The keys are kept in a {@link ConcurrentHashMap}, so checking a key never blocks and
+ * claiming one only contends with keys hashing to the same bin.
+ * A key is released right before its task runs, or by the next claim once its task has been cancelled.
+ */
+final class TaskCoalescer {
+
+    private final Map<Object, Claim> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Claims the key if no task is pending for it.
+     *
+     * @param key The key of the task
+     * @return the claim, or null if a task is already pending
+     */
+    @Nullable Claim claim(@NotNull Object key) {
+        Claim current = pending.get(key);
+        if (current != null && !current.isCancelled()) return null;
+
+        Claim claim = new Claim();
+        if (current == null ? pending.putIfAbsent(key, claim) != null : !pending.replace(key, current, claim)) return null;
+        return claim;
+    }
+
+    /**
+     * Releases the key without running anything, for tasks which failed to schedule.
+     *
+     * @param key   The key of the task
+     * @param claim The claim returned for the key
+     */
+    void release(@NotNull Object key, @NotNull Claim claim) {
+        pending.remove(key, claim);
+    }
+
+    /**
+     * Wraps a task, so the key is released right before it runs.
+     * Submissions made while the task runs are therefore queued again instead of being dropped.
+     *
+     * @param key   The key of the task
+     * @param claim The claim returned for the key
+     * @param run   The task to wrap
+     * @return The wrapped task
+     */
+    Runnable wrap(@NotNull Object key, @NotNull Claim claim, @NotNull Runnable run) {
+        return () -> {
+            pending.remove(key, claim);
+            run.run();
+        };
+    }
+
+    /**
+     * Wraps a retired callback, so the key is released when the task is retired.
+     *
+     * @param key     The key of the task
+     * @param claim   The claim returned for the key
+     * @param retired The retired callback to wrap, may be null
+     * @return The wrapped retired callback
+     */
+    Runnable wrapRetired(@NotNull Object key, @NotNull Claim claim, @Nullable Runnable retired) {
+        return () -> {
+            pending.remove(key, claim);
+            if (retired != null) retired.run();
+        };
+    }
+
+    /**
+     * A claimed key, holding the task scheduled for it once known.
+     */
+    static final class Claim {
+
+        private volatile @Nullable TaskWrapper task;
+
+        void track(@NotNull TaskWrapper task) {
+            this.task = task;
+        }
+
+        boolean isCancelled() {
+            TaskWrapper task = this.task;
+            return task != null && task.isCancelled();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A point-in-time view of the task metrics of one plugin on one scheduler.
+ */
+public final class TaskMetrics {
+
+    private final long submitted;
+    private final long executed;
+    private final long cancelled;
+    private final HistogramSnapshot queueWait;
+    private final HistogramSnapshot runTime;
+
+    TaskMetrics(long submitted, long executed, long cancelled, @NotNull HistogramSnapshot queueWait, @NotNull HistogramSnapshot runTime) {
+        this.submitted = submitted;
+        this.executed = executed;
+        this.cancelled = cancelled;
+        this.queueWait = queueWait;
+        this.runTime = runTime;
+    }
+
+    /**
+     * @return The amount of tasks submitted
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * @return The amount of task runs, counting every run of a repeating task
+     */
+    public long getExecuted() {
+        return executed;
+    }
+
+    /**
+     * @return The amount of tasks cancelled through their {@link com.deathmotion.foliascheduler.utils.TaskWrapper}
+     */
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * The time between the moment a run was due and the moment it started.
+     * Requested delays and periods are not counted as waiting.
+     *
+     * @return The queue wait histogram
+     */
+    public HistogramSnapshot getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return The run time histogram
+     */
+    public HistogramSnapshot getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskMetrics{submitted=" + submitted + ", executed=" + executed + ", cancelled=" + cancelled
+                + ", queueWait=" + queueWait + ", runTime=" + runTime + "}";
+    }
+}
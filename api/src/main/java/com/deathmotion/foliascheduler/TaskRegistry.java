@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the tasks scheduled through FoliaScheduler, per plugin, per scheduler and per group,
+ * so they can be cancelled in bulk without callers keeping their own lists of {@link TaskWrapper}s.
+ * <p>
+ * Tasks are held weakly: once the platform has finished with a task it is dropped from the registry by the garbage collector,
+ * without the registry having to observe its completion. Every set is concurrent, so submissions never wait on each other.
+ * <p>
+ * Tasks are only tracked per plugin and per scheduler while the registry is {@link #enable() enabled}, so submissions cost nothing extra by default.
+ * Tasks tagged with a group are always tracked, as are submissions held back by the {@link SubmissionLimiter}.
+ */
+public final class TaskRegistry {
+
+    private static final int GROUP_SWEEP_INTERVAL = 256;
+
+    private final Map<Plugin, TaskSet[]> byPlugin = new ConcurrentHashMap<>();
+    private final Map<Object, TaskSet> groups = new ConcurrentHashMap<>();
+    private final AtomicInteger tagsUntilSweep = new AtomicInteger(GROUP_SWEEP_INTERVAL);
+    private volatile boolean enabled;
+
+    TaskRegistry() {
+    }
+
+    /**
+     * Starts tracking every task scheduled from now on per plugin and per scheduler,
+     * for {@link #cancelAll(Plugin, SchedulerType)} and the schedulers' {@code cancel}.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops tracking new tasks per plugin and per scheduler. Tasks tracked so far can still be cancelled.
+     */
+    public void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return Whether new tasks are tracked per plugin and per scheduler
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds the task to a group, such as {@code "arena-42"} or {@code "player-<uuid>"}.
+     * A task may be in any number of groups.
+     *
+     * @param task  The task to tag
+     * @param group The group, compared using {@link Object#equals(Object)}
+     * @return The task
+     */
+    public TaskWrapper tag(@NotNull TaskWrapper task, @NotNull Object group) {
+        return task.tag(group);
+    }
+
+    /**
+     * Cancels every task in the group and forgets the group.
+     *
+     * @param group The group
+     * @return The amount of tasks which had not been cancelled yet
+     */
+    public int cancelGroup(@NotNull Object group) {
+        TaskSet tasks = groups.remove(group);
+        return tasks != null ? tasks.cancelAll() : 0;
+    }
+
+    /**
+     * Cancels every tracked task the plugin scheduled through one scheduler, leaving its other tasks alone.
+     * Tasks submitted through {@code execute} have no handle and are not tracked.
+     *
+     * @param plugin The plugin
+     * @param type   The scheduler
+     * @return The amount of tasks which had not been cancelled yet
+     */
+    public int cancelAll(@NotNull Plugin plugin, @NotNull SchedulerType type) {
+        TaskSet[] sets = byPlugin.get(plugin);
+        return sets != null ? sets[type.ordinal()].cancelAll() : 0;
+    }
+
+    /**
+     * Cancels every tracked task the plugin scheduled through any scheduler.
+     * Tasks submitted through {@code execute} have no handle and are not tracked.
+     *
+     * @param plugin The plugin
+     * @return The amount of tasks which had not been cancelled yet
+     */
+    public int cancelAll(@NotNull Plugin plugin) {
+        TaskSet[] sets = byPlugin.get(plugin);
+        if (sets == null) return 0;
+
+        int cancelled = 0;
+        for (TaskSet set : sets) {
+            cancelled += set.cancelAll();
+        }
+        return cancelled;
+    }
+
+    /**
+     * Registers a task scheduled through one of the schedulers, if the registry is enabled.
+     *
+     * @param owner The plugin owning the task
+     * @param type  The scheduler the task was submitted through
+     * @param task  The platform task, a {@link BukkitTask}, {@link ScheduledTask} or {@link Future}
+     */
+    @ApiStatus.Internal
+    public void track(@NotNull Plugin owner, @NotNull SchedulerType type, @Nullable Object task) {
+        if (enabled) add(owner, type, task);
+    }
+
+    /**
+     * Registers a task per plugin and per scheduler, whether or not the registry is enabled.
+     */
+    void add(@NotNull Plugin owner, @NotNull SchedulerType type, @Nullable Object task) {
+        if (task == null) return;
+
+        byPlugin.computeIfAbsent(owner, plugin -> newTaskSets())[type.ordinal()].add(owner, type, task);
+    }
+
+    /**
+     * Adds a task to a group, see {@link TaskWrapper#tag(Object)}.
+     * The task is tracked per plugin and per scheduler as well, if it was not already.
+     *
+     * @param group The group
+     * @param owner The plugin owning the task
+     * @param type  The scheduler the task was submitted through, or null if unknown
+     * @param task  The platform task, a {@link BukkitTask}, {@link ScheduledTask} or {@link Future}
+     */
+    @ApiStatus.Internal
+    public void track(@NotNull Object group, @NotNull Plugin owner, @Nullable SchedulerType type, @Nullable Object task) {
+        if (task == null) return;
+
+        if (type != null && !enabled) add(owner, type, task);
+        groups.compute(group, (key, tasks) -> {
+            if (tasks == null) tasks = new TaskSet();
+            tasks.add(owner, type, task);
+            return tasks;
+        });
+
+        if (tagsUntilSweep.decrementAndGet() == 0) {
+            sweepGroups();
+            tagsUntilSweep.set(Math.max(GROUP_SWEEP_INTERVAL, groups.size()));
+        }
+    }
+
+    /**
+     * Forgets groups whose tasks have all been collected, so short-lived groups do not accumulate.
+     */
+    private void sweepGroups() {
+        for (Object group : groups.keySet()) {
+            groups.computeIfPresent(group, (key, tasks) -> tasks.expunge() ? null : tasks);
+        }
+    }
+
+    private static TaskSet[] newTaskSets() {
+        TaskSet[] sets = new TaskSet[SchedulerType.values().length];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = new TaskSet();
+        }
+        return sets;
+    }
+
+    /**
+     * A concurrent set of weakly held tasks. Collected tasks are expunged whenever a task is added.
+     */
+    private static final class TaskSet {
+
+        private final Set<TaskReference> tasks = ConcurrentHashMap.newKeySet();
+        private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+        void add(Plugin owner, @Nullable SchedulerType type, Object task) {
+            expunge();
+            tasks.add(new TaskReference(task, owner, type, collected));
+        }
+
+        /**
+         * @return Whether the set is empty after removing collected tasks
+         */
+        boolean expunge() {
+            Reference<?> reference;
+            while ((reference = collected.poll()) != null) {
+                tasks.remove(reference);
+            }
+            return tasks.isEmpty();
+        }
+
+        int cancelAll() {
+            int cancelled = 0;
+            for (TaskReference reference : tasks) {
+                // Only the thread which removes a task cancels it, so tasks added concurrently are never dropped uncancelled
+                if (tasks.remove(reference) && reference.cancel()) {
+                    cancelled++;
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * A weak reference to a platform task, equal to other references to the same task so a task is only tracked once per set.
+     */
+    private static final class TaskReference extends WeakReference<Object> {
+
+        private final int hash;
+        private final Plugin owner;
+        private final @Nullable SchedulerType type;
+
+        TaskReference(Object task, Plugin owner, @Nullable SchedulerType type, ReferenceQueue<Object> queue) {
+            super(task, queue);
+            this.hash = System.identityHashCode(task);
+            this.owner = owner;
+            this.type = type;
+        }
+
+        /**
+         * @return true if the task was still pending and has now been cancelled
+         */
+        boolean cancel() {
+            Object task = get();
+            boolean cancelled;
+
+            if (task instanceof BukkitTask) {
+                BukkitTask bukkitTask = (BukkitTask) task;
+                cancelled = !bukkitTask.isCancelled();
+                bukkitTask.cancel();
+            } else if (task instanceof ScheduledTask) {
+                ScheduledTask scheduledTask = (ScheduledTask) task;
+                cancelled = !scheduledTask.isCancelled();
+                scheduledTask.cancel();
+            } else if (task instanceof Future) {
+                cancelled = ((Future<?>) task).cancel(false);
+            } else {
+                return false;
+            }
+
+            if (cancelled && type != null) {
+                FoliaScheduler.getMetrics().recordCancellation(owner, type);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TaskReference)) return false;
+
+            Object task = get();
+            return task != null && task == ((TaskReference) o).get();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Groups the tasks started for one piece of work, such as a minigame round, so none of them outlive it.
+ * <p>
+ * One-off tasks are forked through the scope on any of the schedulers and can be awaited together with {@link #join()}
+ * or {@link #joinAny()}. Any other task, such as a repeating one, can be {@linkplain #adopt(TaskWrapper) adopted}.
+ * Closing the scope cancels every forked task which has not run yet and every adopted task.
+ * In a fail-fast scope the first task to throw cancels all of its siblings as well.
+ * <p>
+ * The futures returned by {@link #join()} and {@link #joinAny()} should be composed rather than blocked on.
+ * Blocking on them from a region or the global region deadlocks when a forked task needs that same thread to run.
+ *
+ * <pre>{@code
+ * TaskScope round = TaskScope.openFailFast(plugin);
+ * round.forkAsync(() -> loadArena(arena));
+ * round.forkOnRegion(arena.getSpawn(), () -> resetBlocks(arena));
+ * round.adopt(globalRegionScheduler.runAtFixedRate(plugin, () -> tickRound(arena), 20, 20));
+ * round.join().whenComplete((ignored, failure) -> {
+ *     round.close();
+ *     if (failure != null) abortRound(arena, failure);
+ * });
+ * }</pre>
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final Plugin plugin;
+    private final boolean failFast;
+    private final Set<Child> children = ConcurrentHashMap.newKeySet();
+    private final Set<TaskWrapper> adopted = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean closed;
+
+    private TaskScope(@NotNull Plugin plugin, boolean failFast) {
+        this.plugin = plugin;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Opens a scope in which a failing task does not affect its siblings.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @return A new scope
+     */
+    public static TaskScope open(@NotNull Plugin plugin) {
+        return new TaskScope(plugin, false);
+    }
+
+    /**
+     * Opens a scope in which the first task to throw cancels every other task of the scope.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @return A new scope
+     */
+    public static TaskScope openFailFast(@NotNull Plugin plugin) {
+        return new TaskScope(plugin, true);
+    }
+
+    /**
+     * Forks a task to run asynchronously.
+     *
+     * @param task The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper forkAsync(@NotNull Runnable task) {
+        return fork(task, child -> FoliaScheduler.getAsyncScheduler().runNow(plugin, child));
+    }
+
+    /**
+     * Forks a task to run on the global region on the next tick.
+     *
+     * @param task The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper forkOnGlobal(@NotNull Runnable task) {
+        return fork(task, child -> FoliaScheduler.getGlobalRegionScheduler().run(plugin, child));
+    }
+
+    /**
+     * Forks a task to run on the region which owns the location on the next tick.
+     *
+     * @param location The location at which the region executing should own
+     * @param task     The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task
+     */
+    public TaskWrapper forkOnRegion(@NotNull Location location, @NotNull Runnable task) {
+        return fork(task, child -> FoliaScheduler.getRegionScheduler().run(plugin, location, child));
+    }
+
+    /**
+     * Forks a task to run on the thread which owns the entity on the next tick.
+     * If the entity is retired before the task could run, including when it already is, the task fails with a {@link CancellationException},
+     * which in a fail-fast scope cancels its siblings.
+     *
+     * @param entity The entity the task runs on
+     * @param task   The task to execute
+     * @return {@link TaskWrapper} instance representing a wrapped task, or null if the entity is already retired
+     */
+    public @Nullable TaskWrapper forkOnEntity(@NotNull Entity entity, @NotNull Runnable task) {
+        return fork(task, child -> FoliaScheduler.getEntityScheduler().run(entity, plugin, child, child::retired));
+    }
+
+    /**
+     * Binds a task scheduled elsewhere to the scope, so it is cancelled when the scope closes or, in a fail-fast scope, when a task fails.
+     * Adopted tasks are not awaited by {@link #join()}.
+     *
+     * @param task The task to adopt
+     * @param <T>  The type of the task wrapper
+     * @return The task
+     */
+    public <T extends TaskWrapper> T adopt(@NotNull T task) {
+        checkOpen();
+        adopted.add(task);
+
+        // The scope may have been cancelled while the task was being added
+        if (isCancelled() && adopted.remove(task)) task.cancel();
+        return task;
+    }
+
+    /**
+     * Waits for every forked task which has not finished yet.
+     * Do not block on the future from a thread the forked tasks run on, compose it instead.
+     *
+     * @return A future completing once those tasks have finished, or exceptionally with the first failure of the scope
+     */
+    public CompletableFuture<Void> join() {
+        return CompletableFuture.allOf(pending()).handle((ignored, throwable) -> {
+            Throwable first = failure.get();
+            if (first != null) throw new CompletionException(first);
+            if (throwable != null) throw throwable instanceof CompletionException ? (CompletionException) throwable : new CompletionException(throwable);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the first forked task to finish, successfully or not.
+     *
+     * @return A future completing once any forked task which has not finished yet has finished, or right away if there are none
+     */
+    public CompletableFuture<Void> joinAny() {
+        CompletableFuture<?>[] pending = pending();
+        if (pending.length == 0) return CompletableFuture.completedFuture(null);
+
+        return CompletableFuture.anyOf(pending).thenApply(ignored -> null);
+    }
+
+    /**
+     * @return The first exception thrown by a forked task, or null if none has failed
+     */
+    public @Nullable Throwable getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * @return Whether the scope has been closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the scope, cancelling every forked task which has not run yet and every adopted task.
+     * Closing a closed scope does nothing.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        cancelAll();
+    }
+
+    private @Nullable TaskWrapper fork(Runnable task, Function<Child, TaskWrapper> submit) {
+        checkOpen();
+
+        Child child = new Child(task);
+        children.add(child);
+
+        try {
+            child.handle = submit.apply(child);
+        } catch (RuntimeException e) {
+            children.remove(child);
+            child.future.completeExceptionally(e);
+            throw e;
+        }
+
+        // The entity was already retired, so neither the task nor its retired callback will run
+        if (child.handle == null) {
+            child.retired();
+            return null;
+        }
+
+        // The child may have been cancelled before its handle was known
+        if (isCancelled() || child.future.isCancelled()) child.cancel();
+        return child.handle;
+    }
+
+    private CompletableFuture<?>[] pending() {
+        return children.stream().map(child -> child.future).toArray(CompletableFuture[]::new);
+    }
+
+    private boolean isCancelled() {
+        return closed || failFast && failure.get() != null;
+    }
+
+    private void failed(Throwable throwable) {
+        if (failure.compareAndSet(null, throwable) && failFast) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (Child child : children) {
+            child.cancel();
+        }
+        for (TaskWrapper task : adopted) {
+            if (adopted.remove(task)) task.cancel();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("The task scope has been closed");
+    }
+
+    /**
+     * A forked task, completing its future once it has run.
+     */
+    private final class Child implements Runnable, SubmissionLimiter.Droppable {
+
+        private final Runnable task;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private volatile @Nullable TaskWrapper handle;
+        private volatile boolean started;
+
+        Child(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) return;
+            started = true;
+
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                children.remove(this);
+                future.completeExceptionally(e);
+                failed(e);
+                throw e;
+            }
+
+            children.remove(this);
+            future.complete(null);
+        }
+
+        @Override
+        public void dropped() {
+            cancel();
+        }
+
+        void retired() {
+            children.remove(this);
+
+            CancellationException e = new CancellationException("The entity was retired");
+            if (future.completeExceptionally(e)) failed(e);
+        }
+
+        void cancel() {
+            future.cancel(false);
+            children.remove(this);
+
+            TaskWrapper current = handle;
+            if (current != null && !started && !current.isCancelled()) current.cancel();
+        }
+    }
+}
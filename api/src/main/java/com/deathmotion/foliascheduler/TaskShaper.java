@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Debounces and throttles tasks per key, so bursts of submissions result in a few runs.
+ * <p>
+ * Every key has at most one pending platform task. Submissions made while it is pending only update the key's state,
+ * and a debounced task whose quiet period was extended reschedules itself once for the remaining time
+ * rather than being cancelled and rescheduled on every submission.
+ * A key whose pending task was cancelled, for example by {@link TaskRegistry#cancelAll}, is freed by its next submission
+ * or by the periodic sweep.
+ * <p>
+ * Quiet periods and throttle periods are measured in wall-clock time at {@value SchedulerDuration#MILLIS_PER_TICK} milliseconds per tick,
+ * so while the server is lagging they cover fewer ticks than requested.
+ */
+final class TaskShaper {
+
+    private static final int SWEEP_INTERVAL = 256;
+
+    private final Map<Object, Debounced> debounced = new ConcurrentHashMap<>();
+    private final Map<Object, Throttled> throttled = new ConcurrentHashMap<>();
+    private final AtomicInteger submissionsUntilSweep = new AtomicInteger(SWEEP_INTERVAL);
+
+    /**
+     * Schedules a task after a delay in ticks, on the thread the shaped task should run on.
+     */
+    @FunctionalInterface
+    interface Delayer {
+        @Nullable TaskWrapper schedule(@NotNull Runnable task, long delayTicks);
+    }
+
+    /**
+     * Runs the latest task once no submission has been made for the key during the quiet period.
+     *
+     * @return true if a new run was scheduled, false if the submission was folded into the pending run
+     */
+    boolean debounce(@NotNull Object key, long quietTicks, @NotNull Runnable run, @NotNull Delayer delayer) {
+        long now = System.nanoTime();
+        long quietNanos = SchedulerDuration.ticksToNanos(Math.max(1, quietTicks));
+        boolean[] created = new boolean[1];
+
+        Debounced state = debounced.compute(key, (k, current) -> {
+            if (current == null || current.isCancelled()) {
+                current = new Debounced(quietNanos);
+                created[0] = true;
+            }
+            current.run = run;
+            current.lastSubmissionNanos = now;
+            return current;
+        });
+
+        if (created[0]) scheduleDebounced(key, state, quietTicks, delayer);
+        submitted(now);
+        return created[0];
+    }
+
+    /**
+     * Runs the task at most once per period.
+     *
+     * @return true if a new run was scheduled, false if the submission was dropped or folded into the pending run
+     */
+    boolean throttle(@NotNull Object key, long periodTicks, @NotNull ThrottleEdge edge, @NotNull Runnable run, @NotNull Delayer delayer) {
+        long now = System.nanoTime();
+        long periodNanos = SchedulerDuration.ticksToNanos(Math.max(1, periodTicks));
+        boolean[] created = new boolean[1];
+
+        Throttled state = throttled.compute(key, (k, current) -> {
+            // A trailing period only ends once its run has been taken, even if the run is late
+            if (current == null || current.isCancelled() || current.edge == ThrottleEdge.LEADING && current.periodEndNanos - now <= 0) {
+                current = new Throttled(edge, now + periodNanos);
+                created[0] = true;
+            }
+            current.run = run;
+            return current;
+        });
+
+        if (created[0]) {
+            if (edge == ThrottleEdge.LEADING) {
+                scheduleOrForget(key, state, throttled, run, 1, delayer);
+            } else {
+                scheduleOrForget(key, state, throttled, () -> {
+                    // The period is over, so the next submission opens a new one
+                    if (throttled.remove(key, state)) state.run.run();
+                }, periodTicks, delayer);
+            }
+        }
+        submitted(now);
+        return created[0];
+    }
+
+    private void submitted(long now) {
+        if (submissionsUntilSweep.decrementAndGet() == 0) {
+            sweep(now);
+            submissionsUntilSweep.set(Math.max(SWEEP_INTERVAL, debounced.size() + throttled.size()));
+        }
+    }
+
+    private void scheduleDebounced(Object key, Debounced state, long delayTicks, Delayer delayer) {
+        scheduleOrForget(key, state, debounced, () -> {
+            long[] remainingNanos = new long[1];
+            Runnable[] due = new Runnable[1];
+
+            debounced.computeIfPresent(key, (k, current) -> {
+                if (current != state) return current;
+
+                remainingNanos[0] = state.lastSubmissionNanos + state.quietNanos - System.nanoTime();
+                if (remainingNanos[0] > 0) return current;
+
+                due[0] = state.run;
+                return null;
+            });
+
+            if (due[0] != null) {
+                due[0].run();
+            } else if (remainingNanos[0] > 0) {
+                scheduleDebounced(key, state, SchedulerDuration.toTicks(remainingNanos[0], TimeUnit.NANOSECONDS), delayer);
+            }
+        }, delayTicks, delayer);
+    }
+
+    /**
+     * Schedules the task, forgetting the key's state if scheduling fails so later submissions are not swallowed.
+     */
+    private static <S extends Shaped> void scheduleOrForget(Object key, S state, Map<Object, S> states, Runnable task, long delayTicks, Delayer delayer) {
+        try {
+            state.task = delayer.schedule(task, delayTicks);
+        } catch (RuntimeException e) {
+            states.remove(key, state);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets the leading edge periods which have ended and the keys whose task was cancelled,
+     * which are otherwise only replaced by the next submission for their key.
+     */
+    private void sweep(long now) {
+        for (Map.Entry<Object, Debounced> entry : debounced.entrySet()) {
+            if (entry.getValue().isCancelled()) debounced.remove(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Object, Throttled> entry : throttled.entrySet()) {
+            Throttled state = entry.getValue();
+            if (state.isCancelled() || state.edge == ThrottleEdge.LEADING && state.periodEndNanos - now <= 0) throttled.remove(entry.getKey(), state);
+        }
+    }
+
+    /**
+     * The state of a key, holding the task scheduled for it once known.
+     */
+    private abstract static class Shaped {
+
+        volatile @Nullable TaskWrapper task;
+
+        boolean isCancelled() {
+            TaskWrapper task = this.task;
+            return task != null && task.isCancelled();
+        }
+    }
+
+    private static final class Debounced extends Shaped {
+
+        private final long quietNanos;
+        private volatile Runnable run;
+        private volatile long lastSubmissionNanos;
+
+        Debounced(long quietNanos) {
+            this.quietNanos = quietNanos;
+        }
+    }
+
+    private static final class Throttled extends Shaped {
+
+        private final ThrottleEdge edge;
+        private final long periodEndNanos;
+        private volatile Runnable run;
+
+        Throttled(ThrottleEdge edge, long periodEndNanos) {
+            this.edge = edge;
+            this.periodEndNanos = periodEndNanos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Checks whether the current thread owns a location, entity or the global region.
+ * On Bukkit, everything is owned by the main thread.
+ */
+final class ThreadOwnership {
+
+    private ThreadOwnership() {
+        throw new IllegalStateException();
+    }
+
+    static boolean owns(@NotNull World world, int chunkX, int chunkZ) {
+        return FoliaScheduler.isFolia() ? Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ) : Bukkit.isPrimaryThread();
+    }
+
+    static boolean owns(@NotNull Location location) {
+        return FoliaScheduler.isFolia() ? Bukkit.isOwnedByCurrentRegion(location) : Bukkit.isPrimaryThread();
+    }
+
+    static boolean owns(@NotNull Entity entity) {
+        return FoliaScheduler.isFolia() ? Bukkit.isOwnedByCurrentRegion(entity) : Bukkit.isPrimaryThread();
+    }
+
+    static boolean ownsGlobal() {
+        return FoliaScheduler.isFolia() ? Bukkit.isGlobalTickThread() : Bukkit.isPrimaryThread();
+    }
+}
@@ -24,13 +24,20 @@
 
 package com.deathmotion.foliascheduler.utils;
 
+import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.foliascheduler.SchedulerMetrics;
+import com.deathmotion.foliascheduler.SchedulerType;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Future;
 
 /**
- * Represents a wrapper around {@code BukkitTask} and Paper's {@code ScheduledTask}.
+ * Represents a wrapper around {@code BukkitTask}, Paper's {@code ScheduledTask} and tasks
+ * executed on FoliaScheduler's own executors.
  * This class provides a unified interface for interacting with both Bukkit's task scheduler
  * and Paper's task scheduler.
  */
@@ -38,6 +45,9 @@ public class TaskWrapper {
 
     private BukkitTask bukkitTask;
     private ScheduledTask scheduledTask;
+    private Plugin owner;
+    private Future<?> future;
+    private SchedulerType schedulerType;
 
     /**
      * Constructs a new TaskWrapper around a BukkitTask.
@@ -48,6 +58,18 @@ public class TaskWrapper {
         this.bukkitTask = bukkitTask;
     }
 
+    /**
+     * Constructs a new TaskWrapper around a BukkitTask submitted through one of FoliaScheduler's schedulers.
+     *
+     * @param bukkitTask    the BukkitTask to wrap
+     * @param schedulerType the scheduler the task was submitted through
+     */
+    public TaskWrapper(@NotNull BukkitTask bukkitTask, @NotNull SchedulerType schedulerType) {
+        this(bukkitTask);
+        this.schedulerType = schedulerType;
+        FoliaScheduler.getTaskRegistry().track(bukkitTask.getOwner(), schedulerType, bukkitTask);
+    }
+
     /**
      * Constructs a new TaskWrapper around Paper's ScheduledTask.
      *
@@ -57,12 +79,59 @@ public class TaskWrapper {
         this.scheduledTask = scheduledTask;
     }
 
+    /**
+     * Constructs a new TaskWrapper around Paper's ScheduledTask submitted through one of FoliaScheduler's schedulers.
+     *
+     * @param scheduledTask the ScheduledTask to wrap
+     * @param schedulerType the scheduler the task was submitted through
+     */
+    public TaskWrapper(@NotNull ScheduledTask scheduledTask, @NotNull SchedulerType schedulerType) {
+        this(scheduledTask);
+        this.schedulerType = schedulerType;
+        // Folia's entity scheduler returns no task for retired entities
+        if (scheduledTask != null) FoliaScheduler.getTaskRegistry().track(scheduledTask.getOwningPlugin(), schedulerType, scheduledTask);
+    }
+
+    /**
+     * Constructs a new TaskWrapper around a task executed on one of FoliaScheduler's own executors.
+     *
+     * @param owner  the plugin that owns the task
+     * @param future the future representing the task
+     */
+    public TaskWrapper(@NotNull Plugin owner, @NotNull Future<?> future) {
+        this.owner = owner;
+        this.future = future;
+    }
+
+    /**
+     * Constructs a new TaskWrapper around a task executed on one of FoliaScheduler's own executors.
+     *
+     * @param owner         the plugin that owns the task
+     * @param future        the future representing the task
+     * @param schedulerType the scheduler the task was submitted through
+     */
+    public TaskWrapper(@NotNull Plugin owner, @NotNull Future<?> future, @NotNull SchedulerType schedulerType) {
+        this(owner, future);
+        this.schedulerType = schedulerType;
+        FoliaScheduler.getTaskRegistry().track(owner, schedulerType, future);
+    }
+
+    /**
+     * Retrieves the scheduler this task was submitted through.
+     *
+     * @return the {@link SchedulerType}, or null if the wrapper was not created by one of FoliaScheduler's schedulers
+     */
+    public @Nullable SchedulerType getSchedulerType() {
+        return schedulerType;
+    }
+
     /**
      * Retrieves the Plugin that owns this task.
      *
      * @return the owning {@link Plugin}
      */
     public Plugin getOwner() {
+        if (future != null) return owner;
         return bukkitTask != null ? bukkitTask.getOwner() : scheduledTask.getOwningPlugin();
     }
 
@@ -72,14 +141,36 @@ public class TaskWrapper {
      * @return true if the task is canceled, false otherwise
      */
     public boolean isCancelled() {
+        if (future != null) return future.isCancelled();
         return bukkitTask != null ? bukkitTask.isCancelled() : scheduledTask.isCancelled();
     }
 
+    /**
+     * Adds this task to a group, so it can be cancelled together with the rest of the group
+     * through {@link com.deathmotion.foliascheduler.TaskRegistry#cancelGroup(Object)}.
+     * A task may be in any number of groups.
+     *
+     * @param group the group, such as {@code "arena-42"}, compared using {@link Object#equals(Object)}
+     * @return this task
+     */
+    public TaskWrapper tag(@NotNull Object group) {
+        Object task = future != null ? future : bukkitTask != null ? bukkitTask : scheduledTask;
+        FoliaScheduler.getTaskRegistry().track(group, getOwner(), schedulerType, task);
+        return this;
+    }
+
     /**
      * Cancels the task. If the task is running, it will be canceled.
      */
     public void cancel() {
-        if (bukkitTask != null) {
+        SchedulerMetrics metrics = FoliaScheduler.getMetrics();
+        if (schedulerType != null && metrics.isEnabled() && !isCancelled()) {
+            metrics.recordCancellation(getOwner(), schedulerType);
+        }
+
+        if (future != null) {
+            future.cancel(false);
+        } else if (bukkitTask != null) {
             bukkitTask.cancel();
         } else {
             scheduledTask.cancel();
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.foliascheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SchedulerDurationTest {
+
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(SchedulerDuration.MILLIS_PER_TICK);
+
+    @Test
+    void timeIsRoundedUpToWholeTicks() {
+        assertEquals(1, SchedulerDuration.of(1, TimeUnit.NANOSECONDS).toTicks());
+        assertEquals(1, SchedulerDuration.ofMillis(49).toTicks());
+        assertEquals(1, SchedulerDuration.ofMillis(50).toTicks());
+        assertEquals(2, SchedulerDuration.ofMillis(51).toTicks());
+        assertEquals(2, SchedulerDuration.of(NANOS_PER_TICK + 1, TimeUnit.NANOSECONDS).toTicks());
+        assertEquals(20, SchedulerDuration.of(1, TimeUnit.SECONDS).toTicks());
+    }
+
+    @Test
+    void zeroAndNegativeTimeAreZeroTicks() {
+        assertEquals(0, SchedulerDuration.ofMillis(0).toTicks());
+        assertEquals(0, SchedulerDuration.ofMillis(-1).toTicks());
+        assertEquals(0, SchedulerDuration.of(Long.MIN_VALUE, TimeUnit.DAYS).toTicks());
+    }
+
+    @Test
+    void hugeTimeDoesNotOverflowTicks() {
+        long maxTicks = (Long.MAX_VALUE - 1) / NANOS_PER_TICK + 1;
+
+        assertEquals(maxTicks, SchedulerDuration.of(Long.MAX_VALUE, TimeUnit.NANOSECONDS).toTicks());
+        assertEquals(maxTicks, SchedulerDuration.of(Long.MAX_VALUE, TimeUnit.DAYS).toTicks());
+    }
+
+    @Test
+    void ticksAreKeptAsIs() {
+        assertEquals(3, SchedulerDuration.ofTicks(3).toTicks());
+        assertEquals(-3, SchedulerDuration.ofTicks(-3).toTicks());
+        assertSame(SchedulerDuration.ZERO, SchedulerDuration.ofTicks(0));
+    }
+
+    @Test
+    void ticksAreConvertedToNanosAndMillis() {
+        assertEquals(NANOS_PER_TICK, SchedulerDuration.ofTicks(1).toNanos());
+        assertEquals(-2 * NANOS_PER_TICK, SchedulerDuration.ofTicks(-2).toNanos());
+        assertEquals(150, SchedulerDuration.ofTicks(3).toMillis());
+    }
+
+    @Test
+    void hugeTicksSaturateInsteadOfOverflowing() {
+        assertEquals(Long.MAX_VALUE, SchedulerDuration.ofTicks(Long.MAX_VALUE).toNanos());
+        assertEquals(Long.MIN_VALUE, SchedulerDuration.ofTicks(Long.MIN_VALUE).toNanos());
+        assertEquals(Long.MAX_VALUE, SchedulerDuration.ticksToNanos(Long.MAX_VALUE / NANOS_PER_TICK + 1));
+        assertEquals(Long.MIN_VALUE, SchedulerDuration.ticksToNanos(Long.MIN_VALUE / NANOS_PER_TICK - 1));
+        assertEquals(Long.MAX_VALUE / NANOS_PER_TICK * NANOS_PER_TICK, SchedulerDuration.ticksToNanos(Long.MAX_VALUE / NANOS_PER_TICK));
+    }
+
+    @Test
+    void millisAreRoundedDown() {
+        assertEquals(1, SchedulerDuration.of(1_999_999, TimeUnit.NANOSECONDS).toMillis());
+        assertEquals(0, SchedulerDuration.of(999_999, TimeUnit.NANOSECONDS).toMillis());
+    }
+
+    @Test
+    void durationsOfEqualLengthAreEqual() {
+        assertEquals(SchedulerDuration.ofTicks(20), SchedulerDuration.of(1, TimeUnit.SECONDS));
+        assertEquals(SchedulerDuration.ofTicks(20).hashCode(), SchedulerDuration.ofMillis(1000).hashCode());
+    }
+}
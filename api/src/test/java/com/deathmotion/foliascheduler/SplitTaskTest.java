@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.deathmotion.foliascheduler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SplitTaskTest {
+
+    /**
+     * Splits the range and returns its first index, its last index and the amount of parts,
+     * failing if a part is empty, larger than the threshold or not adjacent to the next one.
+     */
+    private static long[] split(int from, int to, int threshold) {
+        return new SplitTask<>(from, to, threshold, (partFrom, partTo) -> {
+            assertTrue(partFrom < partTo || from == to, "Empty part [" + partFrom + ", " + partTo + ")");
+            assertTrue((long) partTo - partFrom <= threshold, "Part [" + partFrom + ", " + partTo + ") exceeds the threshold");
+            return new long[]{partFrom, partTo, 1};
+        }, (lower, upper) -> {
+            assertEquals(lower[1], upper[0], "Parts are not adjacent");
+            return new long[]{lower[0], upper[1], lower[2] + upper[2]};
+        }).invoke();
+    }
+
+    @Test
+    void smallRangeIsComputedAtOnce() {
+        assertArrayEquals(new long[]{0, 10, 1}, split(0, 10, 10));
+        assertArrayEquals(new long[]{5, 5, 1}, split(5, 5, 1));
+    }
+
+    @Test
+    void rangeIsSplitIntoPartsOfAtMostTheThreshold() {
+        assertArrayEquals(new long[]{0, 1000, 1000}, split(0, 1000, 1));
+        assertArrayEquals(new long[]{0, 1000, 128}, split(0, 1000, 10));
+    }
+
+    @Test
+    void negativeRangesAreSplitInPlace() {
+        assertArrayEquals(new long[]{-1000, -10, 990}, split(-1000, -10, 1));
+        assertArrayEquals(new long[]{-500, 500, 1000}, split(-500, 500, 1));
+    }
+
+    @Test
+    void hugeRangesDoNotOverflow() {
+        int threshold = Integer.MAX_VALUE / 4;
+
+        long[] full = split(Integer.MIN_VALUE, Integer.MAX_VALUE, threshold);
+        assertEquals(Integer.MIN_VALUE, full[0]);
+        assertEquals(Integer.MAX_VALUE, full[1]);
+
+        assertArrayEquals(new long[]{Integer.MAX_VALUE - 8, Integer.MAX_VALUE, 8}, split(Integer.MAX_VALUE - 8, Integer.MAX_VALUE, 1));
+        assertArrayEquals(new long[]{0, Integer.MAX_VALUE, 4}, split(0, Integer.MAX_VALUE, threshold + 1));
+    }
+}
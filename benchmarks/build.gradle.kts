@@ -0,0 +1,61 @@
+plugins {
+    foliascheduler.`library-conventions`
+}
+
+repositories {
+    maven("https://repo.papermc.io/repository/maven-public/")
+}
+
+// Empty stand-ins for the Folia server classes, appended to the boot class path of the
+// Folia forks so that FoliaScheduler detects Folia without a running server.
+val foliaStub: SourceSet by sourceSets.creating
+
+dependencies {
+    implementation(project(":api"))
+    implementation(libs.paper)
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator)
+}
+
+tasks {
+    shadowJar {
+        archiveFileName = "FoliaSchedulerBenchmarks-${rootProject.ext["versionNoHash"]}.jar"
+        archiveClassifier = null
+
+        // FoliaScheduler refuses to load from its original package
+        relocate(
+            "com.deathmotion.foliascheduler",
+            "com.deathmotion.benchmarkfoliascheduler.shaded"
+        )
+
+        manifest {
+            attributes("Main-Class" to "com.deathmotion.benchmarkfoliascheduler.BenchmarkRunner")
+        }
+
+        mergeServiceFiles()
+    }
+
+    assemble {
+        dependsOn(shadowJar)
+    }
+
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks on the Paper and Folia code paths."
+        dependsOn(shadowJar, foliaStub.classesTaskName)
+
+        classpath = files(shadowJar.flatMap { it.archiveFile })
+        mainClass = "com.deathmotion.benchmarkfoliascheduler.BenchmarkRunner"
+        javaLauncher = project.javaToolchains.launcherFor {
+            languageVersion = JavaLanguageVersion.of(21)
+        }
+
+        systemProperty("foliascheduler.benchmark.foliaStub", foliaStub.output.classesDirs.asPath)
+        systemProperty("foliascheduler.benchmark.results", layout.buildDirectory.dir("results/jmh").get().asFile.path)
+
+        // ./gradlew :benchmarks:jmh -Pjmh.include=RegionSchedulerBenchmark
+        if (project.hasProperty("jmh.include")) {
+            args(project.property("jmh.include") as String)
+        }
+    }
+}
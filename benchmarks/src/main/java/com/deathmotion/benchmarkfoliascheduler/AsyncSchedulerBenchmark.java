@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import com.deathmotion.foliascheduler.TaskPriority;
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delayed and repeating tasks are cancelled straight away, as on Paper they are kept by a real timer
+ * and would otherwise pile up for the length of the run.
+ */
+public class AsyncSchedulerBenchmark {
+
+    @Benchmark
+    public void execute(Fixtures f) {
+        f.asyncScheduler.execute(f.plugin, f.runnable);
+    }
+
+    @Benchmark
+    public TaskWrapper runNowConsumer(Fixtures f) {
+        return f.asyncScheduler.runNow(f.plugin, f.consumer);
+    }
+
+    @Benchmark
+    public TaskWrapper runNowRunnable(Fixtures f) {
+        return f.asyncScheduler.runNow(f.plugin, f.runnable);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedConsumer(Fixtures f) {
+        return cancelled(f.asyncScheduler.runDelayed(f.plugin, f.consumer, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedRunnable(Fixtures f) {
+        return cancelled(f.asyncScheduler.runDelayed(f.plugin, f.runnable, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateConsumer(Fixtures f) {
+        return cancelled(f.asyncScheduler.runAtFixedRate(f.plugin, f.consumer, 1, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateRunnable(Fixtures f) {
+        return cancelled(f.asyncScheduler.runAtFixedRate(f.plugin, f.runnable, 1, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateTicksConsumer(Fixtures f) {
+        return cancelled(f.asyncScheduler.runAtFixedRate(f.plugin, f.consumer, 20, 20));
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateTicksRunnable(Fixtures f) {
+        return cancelled(f.asyncScheduler.runAtFixedRate(f.plugin, f.runnable, 20, 20));
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedPriorityRunnable(Fixtures f) {
+        return cancelled(f.asyncScheduler.runDelayed(f.plugin, TaskPriority.CRITICAL, f.runnable, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public TaskWrapper runIoDelayedRunnable(Fixtures f) {
+        return cancelled(f.asyncScheduler.runIoDelayed(f.plugin, f.runnable, 1, TimeUnit.SECONDS));
+    }
+
+    @Benchmark
+    public Long splitAsync(Fixtures f) {
+        return f.asyncScheduler.splitAsync(f.plugin, 0, 1 << 16, 1 << 12, AsyncSchedulerBenchmark::sumOfSquares, Long::sum).toCompletableFuture().join();
+    }
+
+    private static Long sumOfSquares(int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) sum += (long) i * i;
+        return sum;
+    }
+
+    private static TaskWrapper cancelled(TaskWrapper task) {
+        task.cancel();
+        return task;
+    }
+}
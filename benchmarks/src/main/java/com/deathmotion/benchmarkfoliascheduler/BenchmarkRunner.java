@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every benchmark twice: once in forks that take the Paper code path,
+ * and once in forks that have the Folia stub classes on their boot class path.
+ * <p>
+ * Usage: {@code java -jar FoliaSchedulerBenchmarks.jar [include regex]}, or {@code ./gradlew :benchmarks:jmh}.
+ */
+public final class BenchmarkRunner {
+    private static final String FOLIA_STUB_PROPERTY = "foliascheduler.benchmark.foliaStub";
+    private static final String RESULTS_PROPERTY = "foliascheduler.benchmark.results";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+
+        run("paper", include);
+
+        String foliaStub = System.getProperty(FOLIA_STUB_PROPERTY);
+        if (foliaStub == null || foliaStub.isEmpty()) {
+            System.out.println("Skipping the Folia benchmarks, -D" + FOLIA_STUB_PROPERTY + " has not been set");
+            return;
+        }
+
+        run("folia", include, "-D" + Fixtures.FOLIA_PROPERTY + "=true", "-Xbootclasspath/a:" + foliaStub);
+    }
+
+    private static void run(String platform, String include, String... jvmArgs) throws RunnerException {
+        System.out.println("# Benchmarking the " + platform + " code path");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(jvmArgs);
+
+        String results = System.getProperty(RESULTS_PROPERTY);
+        if (results != null && !results.isEmpty()) {
+            File directory = new File(results);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Unable to create the results directory " + directory);
+            }
+
+            options.result(new File(directory, platform + ".json").getPath())
+                    .resultFormat(ResultFormatType.JSON);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class EntitySchedulerBenchmark {
+
+    @Benchmark
+    public void execute(Fixtures f) {
+        f.entityScheduler.execute(f.entity, f.plugin, f.runnable, null, 1);
+    }
+
+    @Benchmark
+    public void executeOrRun(Fixtures f) {
+        f.entityScheduler.executeOrRun(f.entity, f.plugin, f.runnable, null);
+    }
+
+    /**
+     * The stubs never run the task, so after the first call every call is coalesced.
+     */
+    @Benchmark
+    public boolean scheduleOnceCoalesced(Fixtures f) {
+        return f.entityScheduler.scheduleOnce(f.entity, f.plugin, f.key, f.runnable, null);
+    }
+
+    /**
+     * One action for 64 entities, which the stubs place in the same region section.
+     */
+    @Benchmark
+    public void forEach(Fixtures f) {
+        f.entityScheduler.forEach(f.plugin, f.entities, f.consumer);
+    }
+
+    @Benchmark
+    public TaskWrapper runConsumer(Fixtures f) {
+        return f.entityScheduler.run(f.entity, f.plugin, f.consumer, null);
+    }
+
+    @Benchmark
+    public TaskWrapper runRunnable(Fixtures f) {
+        return f.entityScheduler.run(f.entity, f.plugin, f.runnable, null);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedConsumer(Fixtures f) {
+        return f.entityScheduler.runDelayed(f.entity, f.plugin, f.consumer, null, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedRunnable(Fixtures f) {
+        return f.entityScheduler.runDelayed(f.entity, f.plugin, f.runnable, null, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateConsumer(Fixtures f) {
+        return f.entityScheduler.runAtFixedRate(f.entity, f.plugin, f.consumer, null, 20, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateRunnable(Fixtures f) {
+        return f.entityScheduler.runAtFixedRate(f.entity, f.plugin, f.runnable, null, 20, 20);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import com.deathmotion.foliascheduler.AsyncScheduler;
+import com.deathmotion.foliascheduler.EntityScheduler;
+import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.foliascheduler.GlobalRegionScheduler;
+import com.deathmotion.foliascheduler.RegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shared benchmark state. The stub server is installed before FoliaScheduler is first touched,
+ * and the tasks are allocated once so only the allocations made by the scheduler itself show up
+ * in the GC profiler output.
+ */
+@State(Scope.Benchmark)
+public class Fixtures {
+    static final String FOLIA_PROPERTY = "foliascheduler.benchmark.folia";
+
+    AsyncScheduler asyncScheduler;
+    EntityScheduler entityScheduler;
+    GlobalRegionScheduler globalRegionScheduler;
+    RegionScheduler regionScheduler;
+
+    Plugin plugin;
+    World world;
+    Location location;
+    Entity entity;
+    List<Entity> entities;
+    Runnable runnable;
+    Consumer<Object> consumer;
+    Consumer<ScheduledTask> taskConsumer;
+    Object key;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        StubServer.install();
+
+        boolean expectFolia = Boolean.getBoolean(FOLIA_PROPERTY);
+        if (FoliaScheduler.isFolia() != expectFolia) {
+            throw new IllegalStateException("Expected to benchmark the " + (expectFolia ? "Folia" : "Paper") + " code path, but FoliaScheduler detected otherwise");
+        }
+
+        asyncScheduler = FoliaScheduler.getAsyncScheduler();
+        entityScheduler = FoliaScheduler.getEntityScheduler();
+        globalRegionScheduler = FoliaScheduler.getGlobalRegionScheduler();
+        regionScheduler = FoliaScheduler.getRegionScheduler();
+
+        plugin = StubServer.stub(Plugin.class);
+        world = StubServer.stub(World.class);
+        location = new Location(world, 8, 64, 8);
+        entity = StubServer.stub(Entity.class);
+        entities = Collections.nCopies(64, entity);
+        runnable = () -> {
+        };
+        consumer = task -> {
+        };
+        taskConsumer = (Consumer<ScheduledTask>) (Consumer<?>) consumer;
+        key = new Object();
+    }
+}
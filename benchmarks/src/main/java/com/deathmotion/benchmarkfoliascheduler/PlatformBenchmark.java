@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls the stubbed platform schedulers directly.
+ * Subtract these from the facade results to get the overhead of FoliaScheduler itself.
+ */
+public class PlatformBenchmark {
+
+    @Benchmark
+    public BukkitTask bukkitRunTask(Fixtures f) {
+        return Bukkit.getScheduler().runTask(f.plugin, f.runnable);
+    }
+
+    @Benchmark
+    public BukkitTask bukkitRunTaskLater(Fixtures f) {
+        return Bukkit.getScheduler().runTaskLater(f.plugin, f.runnable, 20);
+    }
+
+    @Benchmark
+    public BukkitTask bukkitRunTaskTimer(Fixtures f) {
+        return Bukkit.getScheduler().runTaskTimer(f.plugin, f.runnable, 20, 20);
+    }
+
+    @Benchmark
+    public BukkitTask bukkitRunTaskAsynchronously(Fixtures f) {
+        return Bukkit.getScheduler().runTaskAsynchronously(f.plugin, f.runnable);
+    }
+
+    @Benchmark
+    public ScheduledTask foliaAsyncRunNow(Fixtures f) {
+        return Bukkit.getAsyncScheduler().runNow(f.plugin, f.taskConsumer);
+    }
+
+    @Benchmark
+    public ScheduledTask foliaAsyncRunDelayed(Fixtures f) {
+        return Bukkit.getAsyncScheduler().runDelayed(f.plugin, f.taskConsumer, 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void foliaGlobalExecute(Fixtures f) {
+        Bukkit.getGlobalRegionScheduler().execute(f.plugin, f.runnable);
+    }
+
+    @Benchmark
+    public ScheduledTask foliaGlobalRun(Fixtures f) {
+        return Bukkit.getGlobalRegionScheduler().run(f.plugin, f.taskConsumer);
+    }
+
+    @Benchmark
+    public void foliaRegionExecute(Fixtures f) {
+        Bukkit.getRegionScheduler().execute(f.plugin, f.world, 0, 0, f.runnable);
+    }
+
+    @Benchmark
+    public ScheduledTask foliaRegionRun(Fixtures f) {
+        return Bukkit.getRegionScheduler().run(f.plugin, f.world, 0, 0, f.taskConsumer);
+    }
+
+    @Benchmark
+    public ScheduledTask foliaEntityRun(Fixtures f) {
+        return f.entity.getScheduler().run(f.plugin, f.taskConsumer, null);
+    }
+}
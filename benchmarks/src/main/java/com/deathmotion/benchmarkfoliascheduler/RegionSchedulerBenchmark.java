@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import com.deathmotion.foliascheduler.ThrottleEdge;
+import com.deathmotion.foliascheduler.utils.TaskWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.concurrent.CompletableFuture;
+
+public class RegionSchedulerBenchmark {
+
+    @Benchmark
+    public void executeChunk(Fixtures f) {
+        f.regionScheduler.execute(f.plugin, f.world, 0, 0, f.runnable);
+    }
+
+    @Benchmark
+    public void executeLocation(Fixtures f) {
+        f.regionScheduler.execute(f.plugin, f.location, f.runnable);
+    }
+
+    @Benchmark
+    public void executeOrRunChunk(Fixtures f) {
+        f.regionScheduler.executeOrRun(f.plugin, f.world, 0, 0, f.runnable);
+    }
+
+    @Benchmark
+    public void executeOrRunLocation(Fixtures f) {
+        f.regionScheduler.executeOrRun(f.plugin, f.location, f.runnable);
+    }
+
+    /**
+     * The stubs never run the task, so after the first call every call is coalesced.
+     */
+    @Benchmark
+    public boolean scheduleOnceCoalesced(Fixtures f) {
+        return f.regionScheduler.scheduleOnce(f.plugin, f.key, f.location, f.runnable);
+    }
+
+    /**
+     * The stubs never run the task, so after the first call every call replaces the pending task.
+     */
+    @Benchmark
+    public boolean debounceFolded(Fixtures f) {
+        return f.regionScheduler.debounce(f.plugin, f.key, f.location, 20, f.runnable);
+    }
+
+    @Benchmark
+    public boolean throttleTrailingFolded(Fixtures f) {
+        return f.regionScheduler.throttle(f.plugin, f.key, f.location, 20, ThrottleEdge.TRAILING, f.runnable);
+    }
+
+    /**
+     * Four tasks spread over two chunks, submitted as one batch.
+     */
+    @Benchmark
+    public void batchSubmit(Fixtures f) {
+        f.regionScheduler.newBatch(f.plugin)
+                .add(f.world, 0, 0, f.runnable)
+                .add(f.world, 0, 0, f.runnable)
+                .add(f.world, 1, 0, f.runnable)
+                .add(f.world, 1, 0, f.runnable)
+                .submit();
+    }
+
+    /**
+     * A 32 by 32 chunk area, which is four region sections on Folia.
+     */
+    @Benchmark
+    public CompletableFuture<Void> forEachChunk(Fixtures f) {
+        return f.regionScheduler.forEachChunk(f.plugin, f.world, 0, 0, 31, 31, (chunkX, chunkZ) -> {
+        });
+    }
+
+    @Benchmark
+    public TaskWrapper runChunkConsumer(Fixtures f) {
+        return f.regionScheduler.run(f.plugin, f.world, 0, 0, f.consumer);
+    }
+
+    @Benchmark
+    public TaskWrapper runChunkRunnable(Fixtures f) {
+        return f.regionScheduler.run(f.plugin, f.world, 0, 0, f.runnable);
+    }
+
+    @Benchmark
+    public TaskWrapper runLocationConsumer(Fixtures f) {
+        return f.regionScheduler.run(f.plugin, f.location, f.consumer);
+    }
+
+    @Benchmark
+    public TaskWrapper runLocationRunnable(Fixtures f) {
+        return f.regionScheduler.run(f.plugin, f.location, f.runnable);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedChunkConsumer(Fixtures f) {
+        return f.regionScheduler.runDelayed(f.plugin, f.world, 0, 0, f.consumer, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedChunkRunnable(Fixtures f) {
+        return f.regionScheduler.runDelayed(f.plugin, f.world, 0, 0, f.runnable, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedLocationConsumer(Fixtures f) {
+        return f.regionScheduler.runDelayed(f.plugin, f.location, f.consumer, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runDelayedLocationRunnable(Fixtures f) {
+        return f.regionScheduler.runDelayed(f.plugin, f.location, f.runnable, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateChunkConsumer(Fixtures f) {
+        return f.regionScheduler.runAtFixedRate(f.plugin, f.world, 0, 0, f.consumer, 20, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateChunkRunnable(Fixtures f) {
+        return f.regionScheduler.runAtFixedRate(f.plugin, f.world, 0, 0, f.runnable, 20, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateLocationConsumer(Fixtures f) {
+        return f.regionScheduler.runAtFixedRate(f.plugin, f.location, f.consumer, 20, 20);
+    }
+
+    @Benchmark
+    public TaskWrapper runAtFixedRateLocationRunnable(Fixtures f) {
+        return f.regionScheduler.runAtFixedRate(f.plugin, f.location, f.runnable, 20, 20);
+    }
+}
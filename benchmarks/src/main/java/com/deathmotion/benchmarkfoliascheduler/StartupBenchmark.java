@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import com.deathmotion.foliascheduler.FoliaScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Measures what a plugin shading FoliaScheduler pays the first time it touches the library during server startup.
+ * <p>
+ * Every invocation loads the library again in a fresh class loader, which only shares the Bukkit API and the stub server
+ * with the benchmark, so each operation is a cold bootstrap: class loading, verification and static initialization.
+ */
+public class StartupBenchmark {
+    private static final String LIBRARY_PACKAGE = FoliaScheduler.class.getPackage().getName() + ".";
+    private static final URL[] LIBRARY_LOCATION = {FoliaScheduler.class.getProtectionDomain().getCodeSource().getLocation()};
+
+    /**
+     * Loads and initializes the entry point, as a plugin checking {@code FoliaScheduler.isFolia()} does.
+     */
+    @Benchmark
+    public Object bootstrap(Fixtures f) throws ReflectiveOperationException {
+        return load().getMethod("isFolia").invoke(null);
+    }
+
+    /**
+     * Loads the entry point and requests a single scheduler, the most common first use.
+     */
+    @Benchmark
+    public Object bootstrapRegionScheduler(Fixtures f) throws ReflectiveOperationException {
+        return load().getMethod("getRegionScheduler").invoke(null);
+    }
+
+    private static Class<?> load() throws ClassNotFoundException {
+        return Class.forName(FoliaScheduler.class.getName(), true, new LibraryClassLoader());
+    }
+
+    /**
+     * Loads the library's classes itself instead of asking its parent first, so they are defined anew.
+     */
+    private static final class LibraryClassLoader extends URLClassLoader {
+        LibraryClassLoader() {
+            super(LIBRARY_LOCATION, StartupBenchmark.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(LIBRARY_PACKAGE)) return super.loadClass(name, resolve);
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) loaded = findClass(name);
+                if (resolve) resolveClass(loaded);
+                return loaded;
+            }
+        }
+    }
+}
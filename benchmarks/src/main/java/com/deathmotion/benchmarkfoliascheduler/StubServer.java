@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.benchmarkfoliascheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Proxy based stand-ins for the server side of the Bukkit and Paper API.
+ * <p>
+ * Every interface returns a shared stub of its return type, so scheduling calls hand back the same
+ * {@code BukkitTask} or {@code ScheduledTask} instance each time and never run the task.
+ * Whatever the stubs cost is measured by {@link PlatformBenchmark}, which calls them directly.
+ */
+final class StubServer implements InvocationHandler {
+    private static final StubServer HANDLER = new StubServer();
+    private static final Map<Class<?>, Object> STUBS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<>();
+    private static final Logger LOGGER = Logger.getLogger("FoliaSchedulerBenchmarks");
+
+    static {
+        PRIMITIVE_DEFAULTS.put(byte.class, (byte) 0);
+        PRIMITIVE_DEFAULTS.put(short.class, (short) 0);
+        PRIMITIVE_DEFAULTS.put(char.class, '\0');
+        PRIMITIVE_DEFAULTS.put(int.class, 0);
+        PRIMITIVE_DEFAULTS.put(long.class, 0L);
+        PRIMITIVE_DEFAULTS.put(float.class, 0F);
+        PRIMITIVE_DEFAULTS.put(double.class, 0D);
+    }
+
+    private StubServer() {
+    }
+
+    /**
+     * Installs the stub server, unless one has already been installed in this JVM.
+     * The field is set directly, as {@link Bukkit#setServer(Server)} expects a fully booted server.
+     */
+    static synchronized void install() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+
+        try {
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, stub(Server.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to install the stub server", e);
+        }
+    }
+
+    /**
+     * @param type The interface to stub
+     * @return The shared stub of the given interface
+     */
+    static <T> T stub(Class<T> type) {
+        return type.cast(STUBS.computeIfAbsent(type, t ->
+                Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{t}, HANDLER)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (method.getDeclaringClass() == Object.class) {
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Stub" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            }
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            return null;
+        }
+        if (returnType == boolean.class) {
+            // Folia's EntityScheduler#execute returns false for retired entities,
+            // and every ownership check answers false so tasks are always dispatched.
+            return name.equals("execute") || name.equals("isValid");
+        }
+        if (returnType.isPrimitive()) {
+            return PRIMITIVE_DEFAULTS.get(returnType);
+        }
+        if (returnType == String.class) {
+            return "Stub";
+        }
+        if (returnType == Logger.class) {
+            return LOGGER;
+        }
+        if (returnType.isInterface()) {
+            return stub(returnType);
+        }
+        return null;
+    }
+}
@@ -4,6 +4,7 @@ plugins {
 
 rootProject.name = "FoliaScheduler"
 include(":api")
+include(":benchmarks")
 
 if (System.getenv("CI") == null) {
     include(":test-plugin")
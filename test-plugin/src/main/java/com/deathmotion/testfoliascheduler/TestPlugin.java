@@ -25,18 +25,26 @@
 package com.deathmotion.testfoliascheduler;
 
 import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.testfoliascheduler.tests.AllocationTest;
 import com.deathmotion.testfoliascheduler.tests.AsyncTest;
 import com.deathmotion.testfoliascheduler.tests.EntityTest;
 import com.deathmotion.testfoliascheduler.tests.GlobalRegionTest;
 import com.deathmotion.testfoliascheduler.tests.RegionTest;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Collections;
+
 public class TestPlugin extends JavaPlugin {
 
     @Override
     public void onEnable() {
         getLogger().info("Starting the FoliaScheduler test plugin implementing api version " + FoliaScheduler.getRawVersion() + "!");
 
+        // Runs before metrics are enabled, as those wrap every task
+        new AllocationTest(this);
+
+        FoliaScheduler.getMetrics().enable();
+
         new AsyncTest(this);
         new EntityTest(this);
         new GlobalRegionTest(this);
@@ -45,6 +53,10 @@ public class TestPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        FoliaScheduler.getMetrics().snapshot().getOrDefault(this, Collections.emptyMap())
+                .forEach((type, metrics) -> getLogger().info("[Metrics] " + type + ": " + metrics));
+
+        FoliaScheduler.shutdown(this);
         getLogger().info("Goodbye world!");
     }
 }
\ No newline at end of file
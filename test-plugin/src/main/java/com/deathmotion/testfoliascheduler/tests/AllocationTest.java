@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Bram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.deathmotion.testfoliascheduler.tests;
+
+import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.foliascheduler.GlobalRegionScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+public class AllocationTest {
+
+    private static final int ITERATIONS = 10_000;
+    // A warm execute must not allocate anything on top of the platform call
+    private static final long MAX_EXECUTE_OVERHEAD = 0;
+
+    private final String baseMessage = "[Allocation] ";
+
+    private final JavaPlugin plugin;
+    private final GlobalRegionScheduler globalRegionScheduler;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public AllocationTest(JavaPlugin plugin) {
+        this.plugin = plugin;
+        globalRegionScheduler = FoliaScheduler.getGlobalRegionScheduler();
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        init();
+    }
+
+    private void init() {
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            plugin.getLogger().warning(baseMessage + "Thread allocation counters are not supported by this JVM!");
+            return;
+        }
+
+        Runnable runnable = () -> {
+        };
+        Consumer<Object> consumer = (o) -> {
+        };
+
+        // Warm up both paths, so class loading and lambda linkage are not counted
+        measure(() -> platformExecute(runnable));
+        measure(() -> globalRegionScheduler.execute(plugin, runnable));
+
+        long platformExecute = measure(() -> platformExecute(runnable));
+        long facadeExecute = measure(() -> globalRegionScheduler.execute(plugin, runnable));
+        long executeOverhead = (facadeExecute - platformExecute) / ITERATIONS;
+        if (executeOverhead > MAX_EXECUTE_OVERHEAD) {
+            plugin.getLogger().severe(baseMessage + "execute: " + executeOverhead + " extra bytes per call, expected at most " + MAX_EXECUTE_OVERHEAD);
+        } else {
+            plugin.getLogger().info(baseMessage + "execute: " + executeOverhead + " extra bytes per call");
+        }
+
+        long facadeRunnable = measure(() -> globalRegionScheduler.run(plugin, runnable));
+        long facadeConsumer = measure(() -> globalRegionScheduler.run(plugin, consumer));
+        plugin.getLogger().info(baseMessage + "run(Runnable): " + (facadeRunnable - platformExecute) / ITERATIONS + " extra bytes per call");
+        plugin.getLogger().info(baseMessage + "run(Consumer): " + (facadeConsumer - platformExecute) / ITERATIONS + " extra bytes per call");
+    }
+
+    private void platformExecute(Runnable runnable) {
+        if (FoliaScheduler.isFolia()) {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, runnable);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, runnable);
+        }
+    }
+
+    private long measure(Runnable submission) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            submission.run();
+        }
+
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
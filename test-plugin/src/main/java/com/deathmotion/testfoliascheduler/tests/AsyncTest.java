@@ -26,9 +26,13 @@ package com.deathmotion.testfoliascheduler.tests;
 
 import com.deathmotion.foliascheduler.AsyncScheduler;
 import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.foliascheduler.Pipeline;
+import com.deathmotion.foliascheduler.SchedulerDuration;
 import com.deathmotion.foliascheduler.utils.TaskWrapper;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.logging.Level;
+
 public class AsyncTest {
 
     private final String baseMessage = "[AsyncScheduler] ";
@@ -60,5 +64,27 @@ public class AsyncTest {
             runAtFixedRateTask.cancel();
             plugin.getLogger().info(baseMessage + "runAtFixedRateTask canceled");
         }, 3, java.util.concurrent.TimeUnit.SECONDS);
+
+        // Should log twice, once a second
+        TaskWrapper runAtFixedRateTicksTask = asyncScheduler.runAtFixedRate(plugin, (o) -> {
+            plugin.getLogger().info(baseMessage + "runAtFixedRate (ticks)");
+        }, SchedulerDuration.ofTicks(20), SchedulerDuration.ofTicks(20));
+
+        asyncScheduler.runDelayed(plugin, (o) -> {
+            runAtFixedRateTicksTask.cancel();
+            plugin.getLogger().info(baseMessage + "runAtFixedRateTicksTask canceled");
+        }, SchedulerDuration.ofMillis(2500));
+
+        // Two hops: both async stages are merged, as are both global stages
+        Pipeline<Integer, String> pipeline = Pipeline.<Integer>of(plugin)
+                .thenAsync(i -> i * 2)
+                .thenAsync(i -> i + 1)
+                .thenOnGlobal(i -> "value " + i)
+                .thenOnGlobal(s -> s + " after " + Thread.currentThread().getName())
+                .onError(t -> plugin.getLogger().log(Level.WARNING, baseMessage + "pipeline failed", t));
+
+        pipeline.run(20).toCompletableFuture().thenAccept(result -> {
+            plugin.getLogger().info(baseMessage + "pipeline with " + pipeline.getHops() + " hops: " + result);
+        });
     }
 }
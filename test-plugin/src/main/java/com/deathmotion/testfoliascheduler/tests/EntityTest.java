@@ -26,6 +26,9 @@ package com.deathmotion.testfoliascheduler.tests;
 
 import com.deathmotion.foliascheduler.EntityScheduler;
 import com.deathmotion.foliascheduler.FoliaScheduler;
+import com.deathmotion.foliascheduler.Pipeline;
+import com.deathmotion.foliascheduler.SchedulerFuture;
+import com.deathmotion.foliascheduler.TaskScope;
 import com.deathmotion.foliascheduler.utils.TaskWrapper;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -35,6 +38,7 @@ import org.bukkit.entity.Skeleton;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class EntityTest {
 
@@ -83,5 +87,50 @@ public class EntityTest {
             runAtFixedRateTask.cancel();
             plugin.getLogger().info(baseMessage + "runAtFixedRateTask canceled");
         }, null, 60);
+
+        // Should log twice, and then be retired once the skeleton is removed
+        Entity removedSkeleton = world.spawn(location, Skeleton.class);
+
+        entityScheduler.runAtFixedRate(removedSkeleton, plugin, (o) -> {
+            plugin.getLogger().info(baseMessage + "runAtFixedRate until removed");
+        }, () -> {
+            plugin.getLogger().info(baseMessage + "runAtFixedRate retired");
+        }, 20, 20);
+
+        entityScheduler.runDelayed(removedSkeleton, plugin, (o) -> {
+            removedSkeleton.remove();
+        }, null, 50);
+
+        entityScheduler.forEach(plugin, world.getEntities(), (entity) -> {
+            plugin.getLogger().info(baseMessage + "forEach " + entity.getType());
+        });
+
+        // Stages targeting an entity which is already removed should fail the run instead of leaving it pending
+        Entity deadSkeleton = world.spawn(location, Skeleton.class);
+        deadSkeleton.remove();
+
+        SchedulerFuture<String> pipeline = Pipeline.<String>of(plugin)
+                .thenAsync(name -> name)
+                .thenOnEntity(deadSkeleton, name -> {
+                    plugin.getLogger().severe(baseMessage + "Pipeline ran a stage for a removed entity");
+                    return name;
+                })
+                .onError(t -> plugin.getLogger().info(baseMessage + "Pipeline for a removed entity failed with " + t.getClass().getSimpleName()))
+                .run("removed");
+        expectDone("Pipeline for a removed entity", pipeline.toCompletableFuture());
+
+        TaskScope scope = TaskScope.open(plugin);
+        scope.forkOnEntity(deadSkeleton, () -> plugin.getLogger().severe(baseMessage + "TaskScope ran a fork for a removed entity"));
+        CompletableFuture<Void> join = scope.join().whenComplete((ignored, t) -> {
+            scope.close();
+            plugin.getLogger().info(baseMessage + "TaskScope fork for a removed entity joined with " + (t != null ? t.getClass().getSimpleName() : "no failure"));
+        });
+        expectDone("TaskScope join for a removed entity", join);
+    }
+
+    private void expectDone(String name, CompletableFuture<?> future) {
+        FoliaScheduler.getGlobalRegionScheduler().runDelayed(plugin, (o) -> {
+            if (!future.isDone()) plugin.getLogger().severe(baseMessage + name + " is still pending");
+        }, 20);
     }
 }
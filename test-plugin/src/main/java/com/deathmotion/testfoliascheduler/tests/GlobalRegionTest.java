@@ -26,9 +26,14 @@ package com.deathmotion.testfoliascheduler.tests;
 
 import com.deathmotion.foliascheduler.FoliaScheduler;
 import com.deathmotion.foliascheduler.GlobalRegionScheduler;
+import com.deathmotion.foliascheduler.IncrementalJob;
+import com.deathmotion.foliascheduler.TaskScope;
 import com.deathmotion.foliascheduler.utils.TaskWrapper;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 public class GlobalRegionTest {
 
     private final String baseMessage = "[GlobalRegionScheduler] ";
@@ -48,6 +53,10 @@ public class GlobalRegionTest {
             plugin.getLogger().info(baseMessage + "execute");
         });
 
+        globalRegionScheduler.executeOrRun(plugin, () -> {
+            plugin.getLogger().info(baseMessage + "executeOrRun");
+        });
+
         globalRegionScheduler.runDelayed(plugin, (o) -> {
             plugin.getLogger().info(baseMessage + "runDelayed");
         }, 40);
@@ -60,5 +69,32 @@ public class GlobalRegionTest {
             runAtFixedRateTask.cancel();
             plugin.getLogger().info(baseMessage + "runAtFixedRateTask canceled");
         }, 60);
+
+        globalRegionScheduler.runAtFixedRate(plugin, (o) -> {
+            plugin.getLogger().info(baseMessage + "runAtFixedRate tagged");
+        }, 40, 40).tag("global-test");
+
+        globalRegionScheduler.runDelayed(plugin, (o) -> {
+            int cancelled = FoliaScheduler.getTaskRegistry().cancelGroup("global-test");
+            plugin.getLogger().info(baseMessage + "cancelGroup cancelled " + cancelled + " task(s)");
+        }, 60);
+
+        IncrementalJob<Integer> job = IncrementalJob.of(plugin, IntStream.range(0, 100_000).iterator(), i -> Math.sqrt(i))
+                .budget(2, TimeUnit.MILLISECONDS)
+                .startOnGlobal();
+        job.toCompletableFuture().thenRun(() -> {
+            plugin.getLogger().info(baseMessage + "IncrementalJob processed " + job.getProcessed() + " items");
+        });
+
+        // The repeating task is adopted by the scope, so it stops once the scope closes
+        TaskScope scope = TaskScope.open(plugin);
+        scope.forkOnGlobal(() -> plugin.getLogger().info(baseMessage + "TaskScope fork"));
+        scope.adopt(globalRegionScheduler.runAtFixedRate(plugin, (o) -> {
+            plugin.getLogger().info(baseMessage + "TaskScope adopted runAtFixedRate");
+        }, 20, 20));
+        scope.join().thenRun(() -> globalRegionScheduler.runDelayed(plugin, (o) -> {
+            scope.close();
+            plugin.getLogger().info(baseMessage + "TaskScope closed");
+        }, 50));
     }
 }
@@ -67,6 +67,11 @@ public class RegionTest {
             plugin.getLogger().info(baseMessage + "execute on location");
         });
 
+        regionScheduler.newBatch(plugin)
+                .add(world, 0, 0, () -> plugin.getLogger().info(baseMessage + "batch on chunk"))
+                .add(location, () -> plugin.getLogger().info(baseMessage + "batch on location"))
+                .submit();
+
         regionScheduler.run(plugin, world, 0, 0, (o) -> {
             plugin.getLogger().info(baseMessage + "run on chunk");
         });